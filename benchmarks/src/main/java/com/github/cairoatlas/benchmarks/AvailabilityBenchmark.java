@@ -0,0 +1,83 @@
+package com.github.cairoatlas.benchmarks;
+
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.availability.HalfHourSlots;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The work behind {@code getAvailabilitiesForDuration} and {@code isAvailable}, over a fixed set of
+ * pseudo-random business-hour days. Scores are per day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+	private static final int DAYS = 1024;
+
+	@Param({"30", "60", "120", "180"})
+	public int durationMinutes;
+
+	private DayAvailability[] days;
+	private int[] requestedSlots;
+	private int slotCount;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		int opening = HalfHourSlots.indexOf("10:00");
+		int closing = HalfHourSlots.indexOf("17:00");
+		days = new DayAvailability[DAYS];
+		requestedSlots = new int[DAYS];
+		for (int i = 0; i < DAYS; i++) {
+			long freeSlots = 0L;
+			for (int slot = opening; slot < closing; slot++) {
+				if (random.nextInt(10) < 6) {
+					freeSlots |= 1L << slot;
+				}
+			}
+			days[i] = DayAvailability.of(freeSlots);
+			requestedSlots[i] = opening + random.nextInt(closing - opening);
+		}
+		slotCount = HalfHourSlots.slotsFor(durationMinutes);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DAYS)
+	public long freeRunStarts() {
+		long result = 0L;
+		for (DayAvailability day : days) {
+			result ^= day.freeRunStarts(slotCount);
+		}
+		return result;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DAYS)
+	public int hasFreeRun() {
+		int available = 0;
+		for (int i = 0; i < DAYS; i++) {
+			if (days[i].hasFreeRun(requestedSlots[i], slotCount)) {
+				available++;
+			}
+		}
+		return available;
+	}
+}
@@ -0,0 +1,22 @@
+package com.github.cairoatlas.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH with the GC profiler always attached, so every result carries its allocation rate
+ * ({@code gc.alloc.rate.norm} is bytes per operation). Accepts the usual JMH command line, e.g.
+ * {@code java -jar target/benchmarks.jar HandleRequest -p fixture=elicit-time}.
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,65 @@
+package com.github.cairoatlas.benchmarks;
+
+import com.github.cairoatlas.ScheduleAppointmentRequestHandler;
+import com.github.cairoatlas.intent.BookabilityQuery;
+import com.github.cairoatlas.objects.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch bookability queries through the default tenant: a mix of types, times on and off the half-hour
+ * grid, and dates across the booking horizon, weekends included. Scores are per batch; the pool runs on
+ * {@code BATCH_PARALLELISM} threads, every core by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(
+		value = 1,
+		jvmArgsAppend = {"-Dlog4j.configurationFile=log4j2-benchmarks.xml", "-Dmetrics.enabled=false"})
+public class BookabilityBenchmark {
+
+	private static final String[] TYPES = {"cleaning", "root canal", "whitening"};
+
+	@Param({"100", "10000"})
+	public int queries;
+
+	private ScheduleAppointmentRequestHandler handler;
+	private List<BookabilityQuery> batch;
+
+	@Setup
+	public void setUp() {
+		handler = new ScheduleAppointmentRequestHandler();
+		Random random = new Random(42);
+		LocalDate today = LocalDate.now(Fixtures.EASTERN_TIME_ZONE);
+		batch = new ArrayList<>(queries);
+		for (int i = 0; i < queries; i++) {
+			batch.add(new BookabilityQuery(
+					TYPES[random.nextInt(TYPES.length)],
+					today.plusDays(1 + random.nextInt(90)).toString(),
+					String.format("%02d:%02d", 9 + random.nextInt(9), 15 * random.nextInt(4))));
+		}
+	}
+
+	@Benchmark
+	public List<ValidationResult> evaluate() {
+		return handler.evaluate(null, batch.stream());
+	}
+}
@@ -0,0 +1,82 @@
+package com.github.cairoatlas.benchmarks;
+
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.availability.HalfHourSlots;
+import com.github.cairoatlas.date.DateRecognizer;
+import com.github.cairoatlas.session.BookingMapCodec;
+import com.github.cairoatlas.session.CompactBookingMapCodec;
+import com.github.cairoatlas.session.JsonBookingMapCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding and re-encoding the {@code bookingMap} session attribute as it grows with the number of dates
+ * a user has asked about, for the legacy JSON form and the compact bitmask form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingMapCodecBenchmark {
+
+	@Param({"1", "5", "20", "60"})
+	public int dates;
+
+	@Param({"json", "compact"})
+	public String format;
+
+	private BookingMapCodec codec;
+	private Map<LocalDate, DayAvailability> bookingMap;
+	private String encoded;
+
+	@Setup
+	public void setUp() {
+		BookingMapCodec json = new JsonBookingMapCodec(DateRecognizer.forZone(Fixtures.EASTERN_TIME_ZONE));
+		codec = "json".equals(format) ? json : new CompactBookingMapCodec(json);
+
+		bookingMap = new HashMap<>();
+		LocalDate date = Fixtures.next(DayOfWeek.MONDAY);
+		int opening = HalfHourSlots.indexOf("10:00");
+		for (int i = 0; i < dates; i++) {
+			long freeSlots = 0L;
+			for (int slot = opening + i % 3; slot < opening + 14; slot += 2 + i % 2) {
+				freeSlots |= 1L << slot;
+			}
+			bookingMap.put(date, DayAvailability.of(freeSlots));
+			date = date.plusDays(date.getDayOfWeek() == DayOfWeek.FRIDAY ? 3 : 1);
+		}
+		encoded = codec.encode(bookingMap);
+	}
+
+	@Benchmark
+	public Map<LocalDate, DayAvailability> decode() {
+		return codec.decode(encoded);
+	}
+
+	@Benchmark
+	public String encode() {
+		return codec.encode(bookingMap);
+	}
+
+	@Benchmark
+	public String roundTrip() {
+		return codec.encode(codec.decode(encoded));
+	}
+}
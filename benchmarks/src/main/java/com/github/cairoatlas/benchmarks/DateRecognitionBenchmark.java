@@ -0,0 +1,89 @@
+package com.github.cairoatlas.benchmarks;
+
+import com.github.cairoatlas.date.DateRecognizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date slot recognition. {@code legacyFormatLoop} is the pre-DateRecognizer {@code isValidDate} plus
+ * {@code parseDate} pair, kept as a baseline for the ratio between the two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateRecognitionBenchmark {
+
+	private static final List<String> LEGACY_DATE_FORMATS =
+			Arrays.asList(
+					"MMMM dd, yyyy", "MMMM dd, yy", "MMMM d, yyyy", "MMMM d, yy",
+					"MMM dd, yyyy", "MMM dd, yy", "MMM d, yyyy", "MMM d, yy",
+					"MM dd, yyyy", "MM dd, yy", "MM d, yyyy", "MM d, yy",
+					"M dd, yyyy", "M dd, yy", "M d, yyyy", "M d, yy",
+					"yyyy-MM-dd", "yyyy-M-dd", "yyyy-M-d",
+					"MM/dd/yyyy", "MM/dd/yy", "MM/d/yyyy", "MM/d/yy",
+					"M/dd/yyyy", "M/dd/yy", "M/d/yyyy", "M/d/yy",
+					"MM-dd-yyyy", "MM-dd-yy", "MM-d-yyyy", "MM-d-yy",
+					"M-dd-yyyy", "M-dd-yy", "M-d-yyyy", "M-d-yy");
+
+	private static final DateRecognizer RECOGNIZER = DateRecognizer.forZone(Fixtures.EASTERN_TIME_ZONE);
+
+	@Param({"2026-10-21", "2026-10-2", "October 21, 2026", "10/21/26", "not a date"})
+	public String input;
+
+	@Benchmark
+	public Optional<LocalDate> dateRecognizer() {
+		return RECOGNIZER.recognize(input);
+	}
+
+	@Benchmark
+	public LocalDate legacyFormatLoop() {
+		if (!legacyIsValidDate(input)) {
+			return null;
+		}
+		return legacyParseDate(input);
+	}
+
+	private static boolean legacyIsValidDate(final String dateString) {
+		for (String dateFormat : LEGACY_DATE_FORMATS) {
+			try {
+				new SimpleDateFormat(dateFormat).parse(dateString);
+				return true;
+			} catch (ParseException e) {
+				// try the next format
+			}
+		}
+		return false;
+	}
+
+	private static LocalDate legacyParseDate(final String dateString) {
+		for (String dateFormat : LEGACY_DATE_FORMATS) {
+			try {
+				Date input = new SimpleDateFormat(dateFormat).parse(dateString);
+				return input.toInstant().atZone(Fixtures.EASTERN_TIME_ZONE).toLocalDate();
+			} catch (ParseException e) {
+				// try the next format
+			}
+		}
+		throw new IllegalStateException("Invalid date");
+	}
+}
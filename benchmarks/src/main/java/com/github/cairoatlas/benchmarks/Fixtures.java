@@ -0,0 +1,45 @@
+package com.github.cairoatlas.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Loads the recorded Lex events under {@code /fixtures}. Dates are stored as placeholders and resolved
+ * against today so every fixture stays in the future: Wednesdays always have the fixed 10:00, 16:00 and
+ * 16:30 openings, which keeps the turn shape of each fixture stable.
+ */
+final class Fixtures {
+
+	static final ZoneId EASTERN_TIME_ZONE = ZoneId.of("America/New_York");
+
+	private Fixtures() {
+	}
+
+	static byte[] load(final String name) throws IOException {
+		String resource = "/fixtures/" + name + ".json";
+		try (InputStream in = Fixtures.class.getResourceAsStream(resource)) {
+			if (in == null) {
+				throw new IllegalArgumentException("No fixture " + resource);
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+				out.write(buffer, 0, read);
+			}
+			String json = new String(out.toByteArray(), StandardCharsets.UTF_8)
+					.replace("{{NEXT_MONDAY}}", next(DayOfWeek.MONDAY).toString())
+					.replace("{{NEXT_WEDNESDAY}}", next(DayOfWeek.WEDNESDAY).toString());
+			return json.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	static LocalDate next(final DayOfWeek dayOfWeek) {
+		return LocalDate.now(EASTERN_TIME_ZONE).with(TemporalAdjusters.next(dayOfWeek));
+	}
+}
@@ -0,0 +1,80 @@
+package com.github.cairoatlas.benchmarks;
+
+import com.github.cairoatlas.ScheduleAppointmentRequestHandler;
+import com.github.cairoatlas.ScheduleAppointmentStreamHandler;
+import com.github.cairoatlas.json.LexJson;
+import com.github.cairoatlas.objects.request.LexRequest;
+import com.github.cairoatlas.objects.response.LexResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full Lex turn per operation. The handler mutates the request's slot and session maps, so each
+ * operation deserializes a fresh request from the fixture bytes. The card-heavy fixtures
+ * ({@code elicit-appointment-type}, {@code elicit-date}, {@code elicit-time}, {@code confirm-only-slot})
+ * spend most of their time building response cards. Logging is capped at WARN so appender I/O stays out
+ * of the numbers, but the handler's eager payload rendering for INFO is still measured. The per-invocation
+ * EMF line is turned off for the same reason.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(
+		value = 1,
+		jvmArgsAppend = {"-Dlog4j.configurationFile=log4j2-benchmarks.xml", "-Dmetrics.enabled=false"})
+public class HandleRequestBenchmark {
+
+	@Param({
+			"elicit-appointment-type",
+			"elicit-date",
+			"elicit-time",
+			"confirm-only-slot",
+			"delegate",
+			"invalid-date"
+	})
+	public String fixture;
+
+	private byte[] event;
+	private ScheduleAppointmentRequestHandler requestHandler;
+	private ScheduleAppointmentStreamHandler streamHandler;
+
+	@Setup
+	public void setUp() throws IOException {
+		event = Fixtures.load(fixture);
+		requestHandler = new ScheduleAppointmentRequestHandler();
+		streamHandler = new ScheduleAppointmentStreamHandler();
+	}
+
+	@Benchmark
+	public LexResponse requestHandler() throws IOException {
+		LexRequest request =
+				LexJson.readRequest(
+						new InputStreamReader(new ByteArrayInputStream(event), StandardCharsets.UTF_8));
+		return requestHandler.handleRequest(request, null);
+	}
+
+	@Benchmark
+	public ByteArrayOutputStream streamHandler() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(2048);
+		streamHandler.handleRequest(new ByteArrayInputStream(event), out, null);
+		return out;
+	}
+}
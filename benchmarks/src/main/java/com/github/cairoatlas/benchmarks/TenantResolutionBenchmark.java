@@ -0,0 +1,94 @@
+package com.github.cairoatlas.benchmarks;
+
+import com.github.cairoatlas.date.DateRecognizer;
+import com.github.cairoatlas.intent.IntentRegistry;
+import com.github.cairoatlas.objects.request.Bot;
+import com.github.cairoatlas.tenant.Tenant;
+import com.github.cairoatlas.tenant.TenantDirectory;
+import com.github.cairoatlas.tenant.TenantRoutes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving the tenant for a Lex bot as the number of routed practices grows. Each bot name routes to its
+ * own tenant and the bots are visited round robin, each request carrying freshly deserialized strings as a
+ * real event would. {@code resolve} keeps every tenant loaded, so it measures the hit path.
+ * {@code resolveThrashing} keeps half of them, so every lookup loads a tenant and evicts another; the
+ * loader itself is trivial, leaving the directory's own miss cost. Scores are per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantResolutionBenchmark {
+
+	private static final int LOOKUPS = 1024;
+
+	@Param({"1", "10", "100", "1000"})
+	public int tenants;
+
+	private Bot[] bots;
+	private TenantDirectory directory;
+	private TenantDirectory thrashingDirectory;
+
+	@Setup
+	public void setUp() {
+		Properties properties = new Properties();
+		for (int i = 0; i < tenants; i++) {
+			properties.setProperty("route.PracticeBot" + i, "practice-" + i);
+		}
+		TenantRoutes routes = TenantRoutes.compile(properties);
+		DateRecognizer dateRecognizer = DateRecognizer.forZone(Fixtures.EASTERN_TIME_ZONE);
+		IntentRegistry intents = IntentRegistry.of();
+		directory = new TenantDirectory(routes, id -> new Tenant(id, dateRecognizer, intents), tenants);
+		thrashingDirectory = new TenantDirectory(
+				routes, id -> new Tenant(id, dateRecognizer, intents), Math.max(1, tenants / 2));
+
+		bots = new Bot[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			Bot bot = new Bot();
+			bot.setName(new String("PracticeBot" + i % tenants));
+			bot.setAlias(new String("prod"));
+			bot.setVersion(new String("3"));
+			bots[i] = bot;
+		}
+		for (Bot bot : bots) {
+			directory.resolve(bot);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public int resolve() {
+		int hash = 0;
+		for (Bot bot : bots) {
+			hash ^= System.identityHashCode(directory.resolve(bot));
+		}
+		return hash;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public int resolveThrashing() {
+		int hash = 0;
+		for (Bot bot : bots) {
+			hash ^= System.identityHashCode(thrashingDirectory.resolve(bot));
+		}
+		return hash;
+	}
+}
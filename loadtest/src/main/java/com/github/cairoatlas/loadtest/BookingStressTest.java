@@ -0,0 +1,334 @@
+package com.github.cairoatlas.loadtest;
+
+import com.github.cairoatlas.ScheduleAppointmentRequestHandler;
+import com.github.cairoatlas.availability.AvailabilityIndex;
+import com.github.cairoatlas.availability.AvailabilityProvider;
+import com.github.cairoatlas.availability.CachingAvailabilityProvider;
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.availability.HalfHourSlots;
+import com.github.cairoatlas.availability.MappedFileAvailabilityProvider;
+import com.github.cairoatlas.calendar.BusinessCalendar;
+import com.github.cairoatlas.objects.request.Bot;
+import com.github.cairoatlas.objects.request.CurrentIntent;
+import com.github.cairoatlas.objects.request.LexRequest;
+import com.github.cairoatlas.objects.response.DialogAction;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+/**
+ * Hammers a few days with concurrent bookings and checks that no slot is ever granted twice. The first
+ * phase reserves and reads through an availability index over the store and its cache, then checks the
+ * index's summaries against the store. The second sends competing FulfillmentCodeHook requests for the same
+ * Wednesday openings through the handler, whose store it maps alongside to snapshot those days before the
+ * race; half of the Wednesdays fall inside the handler's booking horizon, so its index is updated too.
+ * Every granted booking is OR-ed into a ledger with CAS, and a granted range that overlaps an earlier one is
+ * a double booking. Exits with status 1 if one is found or if a store or index disagrees afterwards.
+ *
+ * <p>Options: {@code --threads=N} (default 8), {@code --reservations=N} for the store phase (default
+ * 200000); the handler phase sends a tenth as many requests. The handler phase books against the single
+ * practice store at {@code AVAILABILITY_STORE_PATH}, so {@code TENANTS_PATH} must be unset.
+ */
+public final class BookingStressTest {
+
+	private static final ZoneId EASTERN_TIME_ZONE = ZoneId.of("America/New_York");
+
+	private static final int HOT_DAYS = 4;
+
+	// Where and how large the handler keeps its single practice store; the origin is read from the header.
+	private static final Path HANDLER_STORE_PATH = Paths.get(
+			Optional.ofNullable(System.getenv("AVAILABILITY_STORE_PATH"))
+					.orElse("/tmp/schedule-appointment-availability.bin"));
+
+	private static final int HANDLER_STORE_DAYS = 3660;
+
+	// Whole weeks inside the handler's default 90-day booking horizon, from the next Wednesday on.
+	private static final int HORIZON_WEEKS = 12;
+
+	// Every attempt is a different customer; a repeat from one user would be answered as a retry.
+	private static final AtomicLong USERS = new AtomicLong();
+
+	private static final long BUSINESS_HOURS =
+			((1L << (HalfHourSlots.indexOf("17:00") - HalfHourSlots.indexOf("10:00"))) - 1)
+					<< HalfHourSlots.indexOf("10:00");
+
+	private static final String[][] WEDNESDAY_BOOKINGS = {
+			{"cleaning", "10:00"}, {"cleaning", "16:00"}, {"cleaning", "16:30"},
+			{"whitening", "16:30"}, {"root canal", "16:00"}
+	};
+
+	private BookingStressTest() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		int threads = 8;
+		int reservations = 200000;
+		for (String arg : args) {
+			if (arg.startsWith("--threads=")) {
+				threads = Integer.parseInt(arg.substring("--threads=".length()));
+			} else if (arg.startsWith("--reservations=")) {
+				reservations = Integer.parseInt(arg.substring("--reservations=".length()));
+			} else {
+				throw new IllegalArgumentException("Unknown option " + arg);
+			}
+		}
+		System.exit(run(threads, reservations) ? 0 : 1);
+	}
+
+	/** Runs both phases and returns whether neither found a double booking or a store out of step. */
+	static boolean run(final int threads, final int reservations) throws Exception {
+		if (System.getenv("TENANTS_PATH") != null) {
+			throw new IllegalStateException("Unset TENANTS_PATH: the handler phase books one practice");
+		}
+		if (System.getProperty("log4j.configurationFile") == null) {
+			System.setProperty("log4j.configurationFile", "log4j2-loadtest.xml");
+		}
+		if (System.getProperty("metrics.enabled") == null) {
+			System.setProperty("metrics.enabled", "false");
+		}
+		return storePhase(threads, reservations) & handlerPhase(threads, reservations / 10);
+	}
+
+	private static boolean storePhase(final int threads, final int reservations) throws Exception {
+		Path file = Files.createTempFile("booking-stress", ".bin");
+		try {
+			LocalDate origin = LocalDate.now(EASTERN_TIME_ZONE);
+			MappedFileAvailabilityProvider store = MappedFileAvailabilityProvider.open(
+					file, origin, HOT_DAYS, date -> DayAvailability.of(BUSINESS_HOURS));
+			AvailabilityIndex index = new AvailabilityIndex(
+					new CachingAvailabilityProvider(store, HOT_DAYS, Duration.ofMinutes(1)),
+					EASTERN_TIME_ZONE,
+					HOT_DAYS,
+					date -> BUSINESS_HOURS);
+			index.nextAvailableDays(origin, 1, HOT_DAYS);
+			Ledger ledger = new Ledger(HOT_DAYS);
+			int businessStart = HalfHourSlots.indexOf("10:00");
+			int businessSlots = Long.bitCount(BUSINESS_HOURS);
+
+			long elapsed = race(threads, reservations, () -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				int day = random.nextInt(HOT_DAYS);
+				// Reads race the reservations to update the same summaries.
+				if (random.nextInt(4) == 0) {
+					index.getAvailability(origin.plusDays(day));
+					return;
+				}
+				int slotCount = 1 + random.nextInt(2);
+				int start = businessStart + random.nextInt(businessSlots - slotCount + 1);
+				if (index.reserve(origin.plusDays(day), start, slotCount)) {
+					ledger.grant(day, start, slotCount);
+				} else {
+					ledger.refused.incrementAndGet();
+				}
+			});
+
+			long[] before = new long[HOT_DAYS];
+			Arrays.fill(before, BUSINESS_HOURS);
+			boolean consistent = ledger.matches(store, day -> origin.plusDays(day), before)
+					& indexMatches(index, store, origin);
+			ledger.report("Store", reservations, elapsed);
+			return consistent && ledger.doubleBookings.get() == 0;
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static boolean handlerPhase(final int threads, final int requests) throws Exception {
+		ScheduleAppointmentRequestHandler handler = new ScheduleAppointmentRequestHandler();
+		LocalDate firstWednesday =
+				LocalDate.now(EASTERN_TIME_ZONE).with(TemporalAdjusters.next(DayOfWeek.WEDNESDAY));
+		// Half the Wednesdays fall inside the booking horizon, where the handler's index summarizes them;
+		// earlier runs against the same store have likely booked those, so the other half are far enough out
+		// that they are probably still open. Whatever was booked is in the snapshot and only shows up as
+		// refusals.
+		int nearWeek = ThreadLocalRandom.current().nextInt(HORIZON_WEEKS - 1);
+		int farWeek = 52 + ThreadLocalRandom.current().nextInt(300);
+		IntFunction<LocalDate> dates =
+				day -> firstWednesday.plusWeeks(day < HOT_DAYS / 2 ? nearWeek + day : farWeek + day);
+
+		// A second mapping of the handler's file; it seeds untouched days exactly as the handler would.
+		BusinessCalendar calendar = BusinessCalendar.load();
+		MappedFileAvailabilityProvider store = MappedFileAvailabilityProvider.open(
+				HANDLER_STORE_PATH,
+				LocalDate.now(calendar.getZoneId()).minusDays(1),
+				HANDLER_STORE_DAYS,
+				calendar::initialAvailability);
+		long[] before = new long[HOT_DAYS];
+		for (int day = 0; day < HOT_DAYS; day++) {
+			before[day] = store.getAvailability(dates.apply(day)).freeSlots();
+		}
+		Ledger ledger = new Ledger(HOT_DAYS);
+		StubContext context = new StubContext();
+		// A date in the past is re-asked with a card of open days, which builds the handler's index.
+		handler.handleRequest(
+				fulfillment("cleaning", LocalDate.now(EASTERN_TIME_ZONE).minusDays(1), "10:00"), context);
+
+		long elapsed = race(threads, requests, () -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			int day = random.nextInt(HOT_DAYS);
+			String[] booking = WEDNESDAY_BOOKINGS[random.nextInt(WEDNESDAY_BOOKINGS.length)];
+			LocalDate date = dates.apply(day);
+			DialogAction action =
+					handler.handleRequest(fulfillment(booking[0], date, booking[1]), context).getDialogAction();
+			if ("Close".equals(action.getType()) && "Fulfilled".equals(action.getFulfillmentState())) {
+				ledger.grant(day, HalfHourSlots.indexOf(booking[1]), "root canal".equals(booking[0]) ? 2 : 1);
+			} else {
+				ledger.refused.incrementAndGet();
+			}
+		});
+
+		boolean consistent = ledger.matches(store, dates, before);
+		ledger.report("Handler", requests, elapsed);
+		return consistent && ledger.doubleBookings.get() == 0;
+	}
+
+	/** Whether the index offers exactly the days the store has a long enough run on, for each length. */
+	private static boolean indexMatches(
+			final AvailabilityIndex index, final AvailabilityProvider store, final LocalDate origin) {
+		boolean consistent = true;
+		for (int slotCount = 1; slotCount <= 3; slotCount++) {
+			List<LocalDate> expected = new ArrayList<>();
+			for (int day = 0; day < HOT_DAYS; day++) {
+				DayAvailability availability = store.getAvailability(origin.plusDays(day));
+				if ((availability.freeRunStarts(slotCount) & BUSINESS_HOURS) != 0) {
+					expected.add(origin.plusDays(day));
+				}
+			}
+			List<LocalDate> offered = index.nextAvailableDays(origin, slotCount, HOT_DAYS);
+			if (!offered.equals(expected)) {
+				System.out.printf(
+						"Index and store disagree on days with %d free slots: offered %s, expected %s%n",
+						slotCount, offered, expected);
+				consistent = false;
+			}
+		}
+		return consistent;
+	}
+
+	private static LexRequest fulfillment(final String appointmentType, final LocalDate date, final String time) {
+		Map<String, String> slots = new HashMap<>();
+		slots.put("AppointmentType", appointmentType);
+		slots.put("Date", date.toString());
+		slots.put("Time", time);
+
+		CurrentIntent intent = new CurrentIntent();
+		intent.setName("MakeAppointment");
+		intent.setConfirmationStatus("Confirmed");
+		intent.setSlots(slots);
+
+		Bot bot = new Bot();
+		bot.setName("ScheduleAppointment");
+		bot.setAlias("$LATEST");
+		bot.setVersion("$LATEST");
+
+		LexRequest request = new LexRequest();
+		request.setMessageVersion("1.0");
+		request.setInvocationSource("FulfillmentCodeHook");
+		request.setUserId("stress-" + USERS.incrementAndGet());
+		request.setBot(bot);
+		request.setCurrentIntent(intent);
+		return request;
+	}
+
+	/** Runs {@code total} attempts across {@code threads} threads released together; returns elapsed nanos. */
+	private static long race(final int threads, final int total, final Runnable attempt)
+			throws InterruptedException {
+		AtomicLong remaining = new AtomicLong(total);
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] workers = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				while (remaining.getAndDecrement() > 0) {
+					attempt.run();
+				}
+			});
+			workers[i].start();
+		}
+		long began = System.nanoTime();
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		return System.nanoTime() - began;
+	}
+
+	/** What was granted per day, recorded with CAS so the ledger itself cannot lose an overlap. */
+	private static final class Ledger {
+		private final AtomicLongArray booked;
+		private final AtomicLong granted = new AtomicLong();
+		private final AtomicLong refused = new AtomicLong();
+		private final AtomicLong doubleBookings = new AtomicLong();
+
+		private Ledger(final int days) {
+			this.booked = new AtomicLongArray(days);
+		}
+
+		private void grant(final int day, final int start, final int slotCount) {
+			long run = ((1L << slotCount) - 1) << start;
+			granted.incrementAndGet();
+			while (true) {
+				long current = booked.get(day);
+				if ((current & run) != 0) {
+					doubleBookings.incrementAndGet();
+					System.out.printf("Double booking: day %d, slots %d-%d%n", day, start, start + slotCount - 1);
+					return;
+				}
+				if (booked.compareAndSet(day, current, current | run)) {
+					return;
+				}
+			}
+		}
+
+		/** Whether each day in {@code store} is its {@code before} slots less what the ledger granted. */
+		private boolean matches(
+				final AvailabilityProvider store, final IntFunction<LocalDate> dates, final long[] before) {
+			boolean consistent = true;
+			for (int day = 0; day < before.length; day++) {
+				long expected = before[day] & ~booked.get(day);
+				long actual = store.getAvailability(dates.apply(day)).freeSlots();
+				if (actual != expected) {
+					System.out.printf(
+							"Store and ledger disagree on day %d: free %s, expected %s%n",
+							day, Long.toBinaryString(actual), Long.toBinaryString(expected));
+					consistent = false;
+				}
+			}
+			return consistent;
+		}
+
+		private void report(final String phase, final int attempts, final long elapsedNanos) {
+			System.out.printf(
+					"%s: %d attempts in %.2f s (%.0f/s), granted=%d refused=%d double-booked=%d%n",
+					phase,
+					attempts,
+					elapsedNanos / 1e9,
+					attempts / (elapsedNanos / 1e9),
+					granted.get(),
+					refused.get(),
+					doubleBookings.get());
+		}
+	}
+}
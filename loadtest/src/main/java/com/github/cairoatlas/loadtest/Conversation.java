@@ -0,0 +1,183 @@
+package com.github.cairoatlas.loadtest;
+
+import com.github.cairoatlas.objects.request.Bot;
+import com.github.cairoatlas.objects.request.CurrentIntent;
+import com.github.cairoatlas.objects.request.LexRequest;
+import com.github.cairoatlas.objects.request.Resolutions;
+import com.github.cairoatlas.objects.request.SlotDetail;
+import com.github.cairoatlas.objects.response.DialogAction;
+import com.github.cairoatlas.objects.response.GenericAttachment;
+import com.github.cairoatlas.objects.response.GenericAttachmentButton;
+import com.github.cairoatlas.objects.response.LexResponse;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One simulated user booking through MakeAppointment. It plays the part Lex plays between turns: it
+ * answers whatever slot the handler elicits, carries the slots and session attributes of each response
+ * into the next request, says yes to the confirmation prompt, and sends a FulfillmentCodeHook once the
+ * handler delegates a confirmed intent. Every filled slot comes with a {@code slotDetails} entry resolving
+ * it to itself, as Lex sends for built-in slot types.
+ */
+final class Conversation {
+
+	enum Outcome {
+		FULFILLED, FAILED, ABANDONED
+	}
+
+	/** Sends one turn to the handler under test. */
+	interface Client {
+		LexResponse send(LexRequest request) throws IOException;
+	}
+
+	private static final ZoneId EASTERN_TIME_ZONE = ZoneId.of("America/New_York");
+
+	private static final String[] APPOINTMENT_TYPES = {"cleaning", "root canal", "whitening"};
+
+	private static final int MAX_TURNS = 16;
+
+	private final String userId;
+	private final Random random;
+	private final int horizonDays;
+	private Map<String, String> slots = new HashMap<>();
+	private Map<String, String> sessionAttributes;
+	private String confirmationStatus = "None";
+
+	Conversation(final String userId, final Random random, final int horizonDays) {
+		this.userId = userId;
+		this.random = random;
+		this.horizonDays = horizonDays;
+		slots.put("AppointmentType", null);
+		slots.put("Date", null);
+		slots.put("Time", null);
+	}
+
+	Outcome run(final Client client) throws IOException {
+		LexResponse response = client.send(request("DialogCodeHook"));
+		for (int turn = 1; turn < MAX_TURNS; turn++) {
+			DialogAction action = response.getDialogAction();
+			if (response.getSessionAttributes() != null) {
+				sessionAttributes = new HashMap<>(response.getSessionAttributes());
+			}
+			if (action.getSlots() != null) {
+				slots = new HashMap<>(action.getSlots());
+			}
+			switch (action.getType()) {
+				case "ElicitSlot":
+					confirmationStatus = "None";
+					slots.put(action.getSlotToElicit(), answer(action));
+					response = client.send(request("DialogCodeHook"));
+					break;
+				case "ConfirmIntent":
+					confirmationStatus = "Confirmed";
+					response = client.send(request("DialogCodeHook"));
+					break;
+				case "Delegate":
+					if ("Confirmed".equals(confirmationStatus)) {
+						response = client.send(request("FulfillmentCodeHook"));
+					} else {
+						// Lex asks the intent's own confirmation prompt before fulfilling.
+						confirmationStatus = "Confirmed";
+						response = client.send(request("DialogCodeHook"));
+					}
+					break;
+				case "Close":
+					return "Fulfilled".equals(action.getFulfillmentState()) ? Outcome.FULFILLED : Outcome.FAILED;
+				default:
+					throw new IllegalStateException("Unexpected dialog action " + action.getType());
+			}
+		}
+		return Outcome.ABANDONED;
+	}
+
+	private String answer(final DialogAction action) {
+		switch (action.getSlotToElicit()) {
+			case "AppointmentType":
+				return APPOINTMENT_TYPES[random.nextInt(APPOINTMENT_TYPES.length)];
+			case "Date":
+				// Any day in the horizon, weekends included, as users pick them.
+				return LocalDate.now(EASTERN_TIME_ZONE).plusDays(1 + random.nextInt(horizonDays)).toString();
+			case "Time":
+				String offered = pickButton(action);
+				return offered == null
+						? String.format("%02d:%02d", 10 + random.nextInt(7), random.nextBoolean() ? 0 : 30)
+						: toSlotTime(offered);
+			default:
+				throw new IllegalStateException("Unexpected slot " + action.getSlotToElicit());
+		}
+	}
+
+	private String pickButton(final DialogAction action) {
+		if (action.getResponseCard() == null || action.getResponseCard().getGenericAttachments() == null) {
+			return null;
+		}
+		for (GenericAttachment attachment : action.getResponseCard().getGenericAttachments()) {
+			List<GenericAttachmentButton> buttons = attachment.getButtons();
+			if (buttons != null && !buttons.isEmpty()) {
+				return buttons.get(random.nextInt(buttons.size())).getValue();
+			}
+		}
+		return null;
+	}
+
+	/** Resolves a button value such as "4:30 p.m." to "16:30", as AMAZON.TIME does. */
+	static String toSlotTime(final String spoken) {
+		int colon = spoken.indexOf(':');
+		int hour = Integer.parseInt(spoken.substring(0, colon));
+		String minute = spoken.substring(colon + 1, colon + 3);
+		boolean pm = spoken.contains("p.m.");
+		if (pm && hour != 12) {
+			hour += 12;
+		} else if (!pm && hour == 12) {
+			hour = 0;
+		}
+		return (hour < 10 ? "0" : "") + hour + ":" + minute;
+	}
+
+	private LexRequest request(final String invocationSource) {
+		Bot bot = new Bot();
+		bot.setName("ScheduleAppointment");
+		bot.setAlias("$LATEST");
+		bot.setVersion("$LATEST");
+
+		CurrentIntent intent = new CurrentIntent();
+		intent.setName("MakeAppointment");
+		intent.setConfirmationStatus(confirmationStatus);
+		intent.setSlots(new HashMap<>(slots));
+		intent.setSlotDetails(slotDetails(slots));
+
+		LexRequest request = new LexRequest();
+		request.setMessageVersion("1.0");
+		request.setInvocationSource(invocationSource);
+		request.setUserId(userId);
+		request.setOutputDialogMode("Text");
+		request.setBot(bot);
+		request.setCurrentIntent(intent);
+		request.setSessionAttributes(sessionAttributes == null ? null : new HashMap<>(sessionAttributes));
+		return request;
+	}
+
+	private static Map<String, SlotDetail> slotDetails(final Map<String, String> slots) {
+		Map<String, SlotDetail> details = new HashMap<>();
+		for (Map.Entry<String, String> slot : slots.entrySet()) {
+			SlotDetail detail = new SlotDetail();
+			detail.setOriginalValue(slot.getValue());
+			if (slot.getValue() == null) {
+				detail.setResolutions(Collections.emptyList());
+			} else {
+				Resolutions resolution = new Resolutions();
+				resolution.setValue(slot.getValue());
+				detail.setResolutions(Collections.singletonList(resolution));
+			}
+			details.put(slot.getKey(), detail);
+		}
+		return details;
+	}
+}
@@ -0,0 +1,108 @@
+package com.github.cairoatlas.loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of non-negative values: every power of two is split into sixteen
+ * buckets, so a reported percentile is within 1/16 of the recorded value.
+ */
+final class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	private static final int BAR_WIDTH = 40;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	void record(final long value) {
+		long clamped = Math.max(0L, value);
+		counts.incrementAndGet(index(clamped));
+		count.incrementAndGet();
+		long current = max.get();
+		while (clamped > current && !max.compareAndSet(current, clamped)) {
+			current = max.get();
+		}
+	}
+
+	long count() {
+		return count.get();
+	}
+
+	long max() {
+		return max.get();
+	}
+
+	/** Returns the upper bound of the bucket holding the given fraction of values, e.g. 0.99. */
+	long percentile(final double fraction) {
+		long total = count.get();
+		if (total == 0) {
+			return 0L;
+		}
+		long target = Math.max(1L, (long) Math.ceil(fraction * total));
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(upperBound(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	void printSummary(final PrintStream out, final String label, final String unit) {
+		out.printf(
+				"%s (%s): p50=%d p90=%d p99=%d p99.9=%d max=%d%n",
+				label, unit, percentile(0.5), percentile(0.9), percentile(0.99), percentile(0.999), max());
+	}
+
+	/** Prints one bar per power-of-two range that holds any values. */
+	void printDistribution(final PrintStream out, final String unit) {
+		long[] rows = new long[64];
+		long largest = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			int row = 64 - Long.numberOfLeadingZeros(upperBound(i));
+			rows[row] += counts.get(i);
+			largest = Math.max(largest, rows[row]);
+		}
+		for (int row = 0; row < rows.length; row++) {
+			if (rows[row] == 0) {
+				continue;
+			}
+			long upper = row == 0 ? 0L : (1L << row) - 1;
+			int bar = (int) Math.max(1, rows[row] * BAR_WIDTH / largest);
+			out.printf("  <= %10d %s %10d %s%n", upper, unit, rows[row], repeat('#', bar));
+		}
+	}
+
+	static int index(final long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long upperBound(final int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long width = 1L << (exponent - SUB_BUCKET_BITS);
+		long lower = (SUB_BUCKETS + index % SUB_BUCKETS) * width;
+		return lower + width - 1;
+	}
+
+	private static String repeat(final char c, final int times) {
+		StringBuilder builder = new StringBuilder(times);
+		for (int i = 0; i < times; i++) {
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,230 @@
+package com.github.cairoatlas.loadtest;
+
+import com.github.cairoatlas.ScheduleAppointmentRequestHandler;
+import com.github.cairoatlas.ScheduleAppointmentStreamHandler;
+import com.github.cairoatlas.json.LexJson;
+import com.github.cairoatlas.objects.request.LexRequest;
+import com.github.cairoatlas.objects.response.LexResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Replays generated MakeAppointment conversations against one in-process handler instance shared by all
+ * workers, the way a warm container is, and reports throughput, per-turn latency and payload sizes.
+ *
+ * <p>Options, each as {@code --name=value}:
+ * <ul>
+ *   <li>{@code conversations} measured conversations (default 10000)</li>
+ *   <li>{@code warmup} conversations run first and discarded (default 2000)</li>
+ *   <li>{@code concurrency} conversations in flight at once (default 16)</li>
+ *   <li>{@code handler} {@code stream} or {@code pojo} entry point (default stream)</li>
+ *   <li>{@code threads} {@code virtual} or {@code platform} (default virtual, falling back to platform
+ *   threads before Java 21)</li>
+ *   <li>{@code horizon} how many days ahead users pick dates from (default 3650)</li>
+ * </ul>
+ */
+public final class LoadTestDriver {
+
+	private final boolean streaming;
+	private final ScheduleAppointmentRequestHandler requestHandler;
+	private final ScheduleAppointmentStreamHandler streamHandler;
+	private final int horizonDays;
+
+	private final Histogram latencyMicros = new Histogram();
+	private final Histogram requestBytes = new Histogram();
+	private final Histogram responseBytes = new Histogram();
+	private final Histogram sessionBytes = new Histogram();
+	private final Map<Conversation.Outcome, AtomicLong> outcomes = new EnumMap<>(Conversation.Outcome.class);
+	private final AtomicLong errors = new AtomicLong();
+	private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+	private volatile boolean recording;
+
+	private LoadTestDriver(final boolean streaming, final int horizonDays) {
+		this.streaming = streaming;
+		this.requestHandler = streaming ? null : new ScheduleAppointmentRequestHandler();
+		this.streamHandler = streaming ? new ScheduleAppointmentStreamHandler() : null;
+		this.horizonDays = horizonDays;
+		for (Conversation.Outcome outcome : Conversation.Outcome.values()) {
+			outcomes.put(outcome, new AtomicLong());
+		}
+	}
+
+	public static void main(final String[] args) throws Exception {
+		Map<String, String> options = parse(args);
+		// Must be set before the handler classes load: keep the handler's logs and metric lines off stdout.
+		if (System.getProperty("log4j.configurationFile") == null) {
+			System.setProperty("log4j.configurationFile", "log4j2-loadtest.xml");
+		}
+		if (System.getProperty("metrics.enabled") == null) {
+			System.setProperty("metrics.enabled", "false");
+		}
+
+		int conversations = Integer.parseInt(options.getOrDefault("conversations", "10000"));
+		int warmup = Integer.parseInt(options.getOrDefault("warmup", "2000"));
+		int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+		boolean streaming = !"pojo".equals(options.getOrDefault("handler", "stream"));
+		boolean virtual = !"platform".equals(options.getOrDefault("threads", "virtual"));
+		int horizonDays = Integer.parseInt(options.getOrDefault("horizon", "3650"));
+
+		LoadTestDriver driver = new LoadTestDriver(streaming, horizonDays);
+		ExecutorService executor = virtual ? newVirtualThreadExecutor() : null;
+		String threads = executor == null ? "platform threads" : "virtual threads";
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(concurrency);
+		}
+		try {
+			driver.run(executor, concurrency, warmup);
+			driver.recording = true;
+			long start = System.nanoTime();
+			driver.run(executor, concurrency, conversations);
+			long elapsed = System.nanoTime() - start;
+			driver.report(
+					System.out,
+					String.format(
+							"%d conversations, %d concurrent on %s, %s handler",
+							conversations, concurrency, threads, streaming ? "stream" : "pojo"),
+					conversations,
+					elapsed);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Virtual threads only exist from Java 21 while the bot targets Java 8, so the factory is looked up
+	 * reflectively; null means the running JVM has none.
+	 */
+	private static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private void run(final ExecutorService executor, final int concurrency, final int conversations)
+			throws Exception {
+		AtomicInteger remaining = new AtomicInteger(conversations);
+		List<Future<?>> workers = new ArrayList<>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			workers.add(executor.submit(() -> {
+				while (remaining.getAndDecrement() > 0) {
+					runConversation();
+				}
+			}));
+		}
+		for (Future<?> worker : workers) {
+			worker.get();
+		}
+	}
+
+	private void runConversation() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Conversation conversation =
+				new Conversation("loadtest-" + Long.toHexString(random.nextLong()), random, horizonDays);
+		try {
+			Conversation.Outcome outcome = conversation.run(this::send);
+			if (recording) {
+				outcomes.get(outcome).incrementAndGet();
+			}
+		} catch (Exception | AssertionError e) {
+			errors.incrementAndGet();
+			firstError.compareAndSet(null, e);
+		}
+	}
+
+	private LexResponse send(final LexRequest request) throws IOException {
+		byte[] requestJson = LexJson.toJson(request).getBytes(StandardCharsets.UTF_8);
+		StubContext context = new StubContext();
+		LexResponse response;
+		byte[] responseJson;
+		long latency;
+		if (streaming) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream(2048);
+			long start = System.nanoTime();
+			streamHandler.handleRequest(new ByteArrayInputStream(requestJson), output, context);
+			latency = System.nanoTime() - start;
+			responseJson = output.toByteArray();
+			response = LexJson.readResponse(
+					new InputStreamReader(new ByteArrayInputStream(responseJson), StandardCharsets.UTF_8));
+		} else {
+			long start = System.nanoTime();
+			response = requestHandler.handleRequest(request, context);
+			latency = System.nanoTime() - start;
+			responseJson = LexJson.toJson(response).getBytes(StandardCharsets.UTF_8);
+		}
+		if (recording) {
+			latencyMicros.record(latency / 1000);
+			requestBytes.record(requestJson.length);
+			responseBytes.record(responseJson.length);
+			sessionBytes.record(sessionAttributeBytes(response.getSessionAttributes()));
+		}
+		return response;
+	}
+
+	private static long sessionAttributeBytes(final Map<String, String> attributes) {
+		long bytes = 0;
+		if (attributes != null) {
+			for (Map.Entry<String, String> entry : attributes.entrySet()) {
+				bytes += entry.getKey().length() + (entry.getValue() == null ? 0 : entry.getValue().length());
+			}
+		}
+		return bytes;
+	}
+
+	private void report(
+			final PrintStream out, final String title, final int conversations, final long elapsedNanos) {
+		double seconds = elapsedNanos / 1e9;
+		out.println("Load test: " + title);
+		out.printf(
+				"Elapsed %.2f s: %.1f conversations/s, %.1f turns/s%n",
+				seconds, conversations / seconds, latencyMicros.count() / seconds);
+		out.printf(
+				"Outcomes: fulfilled=%d failed=%d abandoned=%d errors=%d%n",
+				outcomes.get(Conversation.Outcome.FULFILLED).get(),
+				outcomes.get(Conversation.Outcome.FAILED).get(),
+				outcomes.get(Conversation.Outcome.ABANDONED).get(),
+				errors.get());
+		if (firstError.get() != null) {
+			out.print("First error: ");
+			firstError.get().printStackTrace(out);
+		}
+		latencyMicros.printSummary(out, "Turn latency", "us");
+		latencyMicros.printDistribution(out, "us");
+		requestBytes.printSummary(out, "Request payload", "bytes");
+		responseBytes.printSummary(out, "Response payload", "bytes");
+		responseBytes.printDistribution(out, "bytes");
+		sessionBytes.printSummary(out, "Session attributes", "chars");
+	}
+
+	private static Map<String, String> parse(final String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int equals = arg.indexOf('=');
+			if (!arg.startsWith("--") || equals < 0) {
+				throw new IllegalArgumentException("Expected --name=value but got " + arg);
+			}
+			options.put(arg.substring(2, equals), arg.substring(equals + 1));
+		}
+		return options;
+	}
+}
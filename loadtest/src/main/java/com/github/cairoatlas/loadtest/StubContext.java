@@ -0,0 +1,82 @@
+package com.github.cairoatlas.loadtest;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/** An offline stand-in for the Lambda runtime's {@link Context}; the logger writes to stderr. */
+final class StubContext implements Context {
+
+	private static final LambdaLogger LOGGER = new LambdaLogger() {
+		@Override
+		public void log(final String message) {
+			System.err.println(message);
+		}
+
+		@Override
+		public void log(final byte[] message) {
+			System.err.println(new String(message, StandardCharsets.UTF_8));
+		}
+	};
+
+	private final String awsRequestId = UUID.randomUUID().toString();
+
+	@Override
+	public String getAwsRequestId() {
+		return awsRequestId;
+	}
+
+	@Override
+	public String getLogGroupName() {
+		return "/aws/lambda/LexBotScheduleAppointment";
+	}
+
+	@Override
+	public String getLogStreamName() {
+		return "loadtest";
+	}
+
+	@Override
+	public String getFunctionName() {
+		return "LexBotScheduleAppointment";
+	}
+
+	@Override
+	public String getFunctionVersion() {
+		return "$LATEST";
+	}
+
+	@Override
+	public String getInvokedFunctionArn() {
+		return "arn:aws:lambda:us-east-1:000000000000:function:LexBotScheduleAppointment";
+	}
+
+	@Override
+	public CognitoIdentity getIdentity() {
+		return null;
+	}
+
+	@Override
+	public ClientContext getClientContext() {
+		return null;
+	}
+
+	@Override
+	public int getRemainingTimeInMillis() {
+		return 3000;
+	}
+
+	@Override
+	public int getMemoryLimitInMB() {
+		return 512;
+	}
+
+	@Override
+	public LambdaLogger getLogger() {
+		return LOGGER;
+	}
+}
@@ -0,0 +1,14 @@
+package com.github.cairoatlas.loadtest;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/** A short {@link BookingStressTest} run, so a double booking fails the build rather than a manual run. */
+public class BookingStressSmokeTest {
+
+	@Test
+	public void grantsNoSlotTwice() throws Exception {
+		assertTrue(BookingStressTest.run(8, 20000));
+	}
+}
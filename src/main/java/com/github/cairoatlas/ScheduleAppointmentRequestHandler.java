@@ -2,700 +2,201 @@ package com.github.cairoatlas;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.github.cairoatlas.availability.AvailabilityProvider;
+import com.github.cairoatlas.availability.CachingAvailabilityProvider;
+import com.github.cairoatlas.availability.MappedFileAvailabilityProvider;
+import com.github.cairoatlas.calendar.BusinessCalendar;
+import com.github.cairoatlas.catalog.AppointmentCatalog;
+import com.github.cairoatlas.date.DateRecognizer;
+import com.github.cairoatlas.idempotency.FulfillmentCache;
+import com.github.cairoatlas.idempotency.FulfillmentKey;
+import com.github.cairoatlas.intent.BookabilityEvaluator;
+import com.github.cairoatlas.intent.BookabilityQuery;
+import com.github.cairoatlas.intent.IntentHandler;
+import com.github.cairoatlas.intent.IntentRegistry;
+import com.github.cairoatlas.intent.IntentRequest;
+import com.github.cairoatlas.intent.MakeAppointmentIntentHandler;
+import com.github.cairoatlas.intent.MakeAppointmentPrompts;
+import com.github.cairoatlas.logging.PayloadLogger;
+import com.github.cairoatlas.metrics.InvocationMetrics;
 import com.github.cairoatlas.objects.ValidationResult;
+import com.github.cairoatlas.objects.request.Bot;
 import com.github.cairoatlas.objects.request.LexRequest;
-import com.github.cairoatlas.objects.response.*;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.github.cairoatlas.objects.response.LexResponse;
+import com.github.cairoatlas.session.BookingMapBudget;
+import com.github.cairoatlas.session.CompactBookingMapCodec;
+import com.github.cairoatlas.session.JsonBookingMapCodec;
+import com.github.cairoatlas.tenant.Tenant;
+import com.github.cairoatlas.tenant.TenantDirectory;
+import com.github.cairoatlas.tenant.TenantRoutes;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.lang.reflect.Type;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.format.TextStyle;
-import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public class ScheduleAppointmentRequestHandler implements RequestHandler<LexRequest, LexResponse> {
 
-	private static final ZoneId EASTERN_TIME_ZONE = ZoneId.of("America/New_York");
-
-	private static final List<String> DATE_FORMATS =
-			Arrays.asList(
-					"MMMM dd, yyyy",
-					"MMMM dd, yy",
-					"MMMM d, yyyy",
-					"MMMM d, yy",
-					"MMM dd, yyyy",
-					"MMM dd, yy",
-					"MMM d, yyyy",
-					"MMM d, yy",
-					"MM dd, yyyy",
-					"MM dd, yy",
-					"MM d, yyyy",
-					"MM d, yy",
-					"M dd, yyyy",
-					"M dd, yy",
-					"M d, yyyy",
-					"M d, yy",
-					"yyyy-MM-dd",
-					"yyyy-M-dd",
-					"yyyy-M-d",
-					"MM/dd/yyyy",
-					"MM/dd/yy",
-					"MM/d/yyyy",
-					"MM/d/yy",
-					"M/dd/yyyy",
-					"M/dd/yy",
-					"M/d/yyyy",
-					"M/d/yy",
-					"MM-dd-yyyy",
-					"MM-dd-yy",
-					"MM-d-yyyy",
-					"MM-d-yy",
-					"M-dd-yyyy",
-					"M-dd-yy",
-					"M-d-yyyy",
-					"M-d-yy");
-
-	private static final Map<String, Integer> APPOINTMENT_DURATION;
-
-	static {
-		Map<String, Integer> duration = new HashMap<>();
-		duration.put("cleaning", 30);
-		duration.put("root canal", 60);
-		duration.put("whitening", 30);
-		APPOINTMENT_DURATION = Collections.unmodifiableMap(duration);
-	}
-
-	private static final Gson GSON = new Gson();
-
-	private static final Map<String, List<String>> DAY_STRINGS;
-
-	static {
-		Map<String, List<String>> days = new HashMap<>();
-		days.put("Monday", Arrays.asList("Mon", "Monday", "0"));
-		days.put("Tuesday", Arrays.asList("Tue", "Tuesday", "1"));
-		days.put("Wednesday", Arrays.asList("Wed", "Wednesday", "2"));
-		days.put("Thursday", Arrays.asList("Thu", "Thursday", "3"));
-		days.put("Friday", Arrays.asList("Fri", "Friday", "4"));
-		days.put("Saturday", Arrays.asList("Sat", "Saturday", "5"));
-		days.put("Sunday", Arrays.asList("Sun", "Sunday", "6"));
-		DAY_STRINGS = Collections.unmodifiableMap(days);
-	}
-
-	private static final Map<String, String> MONTH_STRINGS;
-
-	static {
-		Map<String, String> months = new HashMap<>();
-		months.put("JANUARY", "January");
-		months.put("FEBRUARY", "February");
-		months.put("MARCH", "March");
-		months.put("APRIL", "April");
-		months.put("MAY", "May");
-		months.put("JUNE", "June");
-		months.put("JULY", "July");
-		months.put("AUGUST", "August");
-		months.put("SEPTEMBER", "September");
-		months.put("OCTOBER", "October");
-		months.put("NOVEMBER", "November");
-		months.put("DECEMBER", "Decmber");
-		MONTH_STRINGS = Collections.unmodifiableMap(months);
-	}
-
-	private static final Logger LOG = LogManager.getLogger(ScheduleAppointmentRequestHandler.class);
-
-	private LexResponse elicitSlot(
-			final Map<String, String> outputSessionAttributes,
-			final String intentName,
-			final Map<String, String> slots,
-			final String slotToElicit,
-			final DialogActionMessage message,
-			final ResponseCard responseCard) {
-		DialogAction dialogAction = new DialogAction();
-		dialogAction.setType("ElicitSlot");
-		dialogAction.setIntentName(intentName);
-		dialogAction.setMessage(message);
-		dialogAction.setSlotToElicit(slotToElicit);
-		dialogAction.setSlots(slots);
-		dialogAction.setResponseCard(responseCard);
-
-		LexResponse lexResponse = new LexResponse();
-		lexResponse.setSessionAttributes(outputSessionAttributes);
-		lexResponse.setDialogAction(dialogAction);
-
-		return lexResponse;
-	}
-
-	private LexResponse confirmIntent(
-			final Map<String, String> outputSessionAttributes,
-			final String intentName,
-			final Map<String, String> slots,
-			final DialogActionMessage message,
-			final ResponseCard responseCard) {
-		DialogAction dialogAction = new DialogAction();
-		dialogAction.setType("ConfirmIntent");
-		dialogAction.setIntentName(intentName);
-		dialogAction.setMessage(message);
-		dialogAction.setSlots(slots);
-		dialogAction.setResponseCard(responseCard);
-
-		LexResponse lexResponse = new LexResponse();
-		lexResponse.setSessionAttributes(outputSessionAttributes);
-		lexResponse.setDialogAction(dialogAction);
-
-		return lexResponse;
-	}
-
-	private LexResponse close(
-			final Map<String, String> outputSessionAttributes, final DialogActionMessage message) {
-		DialogAction dialogAction = new DialogAction();
-		dialogAction.setType("Close");
-		dialogAction.setFulfillmentState("Fulfilled");
-		dialogAction.setMessage(message);
-
-		LexResponse lexResponse = new LexResponse();
-		lexResponse.setSessionAttributes(outputSessionAttributes);
-		lexResponse.setDialogAction(dialogAction);
-
-		return lexResponse;
-	}
-
-	private LexResponse delegate(
-			final Map<String, String> outputSessionAttributes, final Map<String, String> slots) {
-		DialogAction dialogAction = new DialogAction();
-		dialogAction.setType("Delegate");
-		dialogAction.setSlots(slots);
-
-		LexResponse lexResponse = new LexResponse();
-		lexResponse.setSessionAttributes(outputSessionAttributes);
-		lexResponse.setDialogAction(dialogAction);
-
-		return lexResponse;
-	}
-
-	private ResponseCard buildResponseCard(
-			final String title, final String subtitle, final List<GenericAttachmentButton> options) {
-		List<GenericAttachmentButton> buttons = new ArrayList<>();
-		if (options != null && !options.isEmpty()) {
-			buttons = new ArrayList<>();
-			for (int i = 0; i < Math.min(5, options.size()); i++) {
-				buttons.add(options.get(i));
-			}
-		}
-
-		ResponseCard responseCard = new ResponseCard(1, "application/vnd.amazonaws.card.generic");
-		GenericAttachment attachment = new GenericAttachment(title, subtitle);
-		attachment.setButtons(buttons);
-		responseCard.setGenericAttachments(Collections.singletonList(attachment));
-
-		return responseCard;
-	}
-
-	private String incrementTimeByThirtyMinutes(final String appointmentTime) {
-		String[] parts = appointmentTime.split(":");
-		int hour = Integer.valueOf(parts[0]);
-		int minutes = Integer.valueOf(parts[1]);
-
-		if (minutes == 30) {
-			hour++;
-			return hour + ":00";
-		}
-
-		minutes += 30;
-		return hour + ":" + minutes;
-	}
-
-	private int getRandomInt(final double minimum, final double maximum) {
-		int minInt = (int) Math.ceil(minimum);
-		int maxInt = (int) Math.floor(maximum);
-
-		return ThreadLocalRandom.current().nextInt(minInt, maxInt);
-	}
-
-	private List<String> getAvailabilities(final String date) {
-		int dayOfWeek =
-				Integer.valueOf(
-						DAY_STRINGS
-								.get(parseDate(date).getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH))
-								.get(2));
-		List<String> availabilities = new ArrayList<>();
-		double availabilityProbability = 0.3;
-		if (dayOfWeek == 0) {
-			int startHour = 10;
-			while (startHour <= 16) {
-				if (Math.random() < availabilityProbability) {
-					int appointmentType = getRandomInt(1, 4);
-					if (appointmentType == 1) {
-						availabilities.add(startHour + ":00");
-					} else if (appointmentType == 2) {
-						availabilities.add(startHour + ":30");
-					} else {
-						availabilities.add(startHour + ":00");
-						availabilities.add(startHour + ":30");
-					}
-				}
-
-				startHour += 1;
-			}
-		}
-
-		if (dayOfWeek == 2 || dayOfWeek == 4) {
-			availabilities.add("10:00");
-			availabilities.add("16:00");
-			availabilities.add("16:30");
-		}
-
-		return availabilities;
-	}
-
-	private boolean isValidDate(final String dateString) {
-		for (String dateFormat : DATE_FORMATS) {
-			try {
-				SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
-				simpleDateFormat.parse(dateString);
-				return true;
-			} catch (ParseException e) {
-				// log e
-			}
-		}
-
-		return false;
-	}
-
-	private LocalDate parseDate(final String dateString) {
-		for (String dateFormat : DATE_FORMATS) {
-			try {
-				SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
-				Date input = simpleDateFormat.parse(dateString);
-				return input.toInstant().atZone(EASTERN_TIME_ZONE).toLocalDate();
-			} catch (ParseException e) {
-				// log e
-			}
-		}
-
-		throw new IllegalStateException("Invalid date");
-	}
-
-	private boolean isAvailable(
-			final String appointmentTime, final int duration, final List<String> availabilities) {
-		if (duration == 30) {
-			return availabilities.contains(appointmentTime);
-		} else if (duration == 60) {
-			String secondHalfHourTime = incrementTimeByThirtyMinutes(appointmentTime);
-			return availabilities.contains(appointmentTime)
-					&& availabilities.contains(secondHalfHourTime);
-		}
-
-		throw new IllegalStateException("Was not able to understand duration " + duration);
-	}
-
-	private Integer getDuration(final String appointmentType) {
-		if (appointmentType == null || appointmentType.isEmpty()) {
-			return null;
-		}
-		return APPOINTMENT_DURATION.get(appointmentType.toLowerCase());
-	}
-
-	private List<String> getAvailabilitiesForDuration(
-			final int duration, final List<String> availabilities) {
-		List<String> durationAvailabilities = new ArrayList<>();
-		String startTime = "10:00";
-		while (!startTime.equals("17:00")) {
-			if (availabilities.contains(startTime)) {
-				if (duration == 30) {
-					durationAvailabilities.add(startTime);
-				} else if (availabilities.contains(incrementTimeByThirtyMinutes(startTime))) {
-					durationAvailabilities.add(startTime);
-				}
-			}
-
-			startTime = incrementTimeByThirtyMinutes(startTime);
-		}
-
-		return durationAvailabilities;
-	}
-
-	private ValidationResult validateBookAppointment(
-			final String appointmentType, final String date, final String appointmentTime) {
-		Integer duration = getDuration(appointmentType);
-		if (appointmentType != null && !appointmentType.isEmpty() && duration == null) {
-			return new ValidationResult(
-					false,
-					"AppointmentType",
-					"I did not recognize that, can I book you a root canal, cleaning, or whitening?");
-		}
-
-		if (appointmentTime != null && !appointmentTime.isEmpty()) {
-			if (appointmentTime.length() != 5) {
-				return new ValidationResult(
-						false,
-						"Time",
-						"I did not recognize that, what time would you like to book your appointment?");
-			}
-
-			String[] parts = appointmentTime.split(":");
-			int hour = Integer.valueOf(parts[0]);
-			int minute = Integer.valueOf(parts[1]);
-
-			if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
-				return new ValidationResult(
-						false,
-						"Time",
-						"I did not recognize that, what time would you like to book your appointment?");
-			}
-
-			if (hour < 10 || hour > 16) {
-				return new ValidationResult(
-						false,
-						"Time",
-						"Our business hours are ten a.m. to five p.m.  What time works best for you?");
-			}
-
-			if (minute != 0 && minute != 30) {
-				return new ValidationResult(
-						false,
-						"Time",
-						"We schedule appointments every half hour, what time works best for you?");
-			}
-		}
-
-		if (date != null && !date.isEmpty()) {
-			if (!isValidDate(date)) {
-				return new ValidationResult(
-						false, "Date", "I did not understand that, what date works best for you?");
-			} else if (parseDate(date).isBefore(LocalDate.now(EASTERN_TIME_ZONE))) {
-				return new ValidationResult(
-						false,
-						"Date",
-						"Appointments must be scheduled a day in advance.  Can you try a different date?");
-			} else if ("SUNDAY"
-					.equals(parseDate(date).getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH))
-					|| "SATURDAY"
-					.equals(
-							parseDate(date).getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH))) {
-				return new ValidationResult(
-						false, "Date", "Our office is not open on the weekends, can you provide a work day?");
-			}
-		}
-
-		return new ValidationResult(true, null, null);
-	}
-
-	private String buildTimeOutputString(final String appointmentTime) {
-		String[] parts = appointmentTime.split(":");
-		int hour = Integer.valueOf(parts[0]);
-		if (hour > 12) {
-			hour -= 12;
-			return hour + ":" + parts[1] + " p.m.";
-		} else if (hour == 12) {
-			return "12:" + parts[1] + " p.m.";
-		} else if (hour == 0) {
-			return "12:" + parts[1] + " a.m.";
-		}
-
-		return hour + ":" + parts[1] + " a.m.";
-	}
+	private static final int AVAILABILITY_STORE_DAYS = 3660;
+
+	private static final int AVAILABILITY_CACHE_DAYS =
+			Integer.parseInt(Optional.ofNullable(System.getenv("AVAILABILITY_CACHE_DAYS")).orElse("400"));
+
+	private static final Duration AVAILABILITY_CACHE_TTL = Duration.ofSeconds(
+			Long.parseLong(Optional.ofNullable(System.getenv("AVAILABILITY_CACHE_TTL_SECONDS")).orElse("60")));
+
+	private static final int BOOKING_HORIZON_DAYS =
+			Integer.parseInt(Optional.ofNullable(System.getenv("BOOKING_HORIZON_DAYS")).orElse("90"));
+
+	private static final int BOOKING_MAP_MAX_BYTES =
+			Integer.parseInt(Optional.ofNullable(System.getenv("BOOKING_MAP_MAX_BYTES")).orElse("1024"));
+
+	// Unset for a single practice configured by the bundled files and their environment overrides.
+	private static final String TENANTS_PATH = System.getenv("TENANTS_PATH");
+
+	private static final String SINGLE_TENANT_ID = "default";
+
+	// Stores stay open when their tenant is evicted: a second provider over the same file would not share
+	// the first one's locks, and two reservations could both succeed.
+	private static final ConcurrentHashMap<String, AvailabilityProvider> AVAILABILITY_STORES =
+			new ConcurrentHashMap<>();
+
+	private static final TenantDirectory TENANTS = new TenantDirectory(
+			TENANTS_PATH == null
+					? TenantRoutes.single(SINGLE_TENANT_ID)
+					: TenantRoutes.load(Paths.get(TENANTS_PATH, "tenants.properties")),
+			ScheduleAppointmentRequestHandler::loadTenant,
+			Integer.parseInt(Optional.ofNullable(System.getenv("TENANT_CACHE_SIZE")).orElse("256")));
+
+	private static final FulfillmentCache FULFILLMENTS = new FulfillmentCache(
+			Integer.parseInt(Optional.ofNullable(System.getenv("FULFILLMENT_CACHE_ENTRIES")).orElse("10000")),
+			Duration.ofSeconds(Long.parseLong(
+					Optional.ofNullable(System.getenv("FULFILLMENT_CACHE_TTL_SECONDS")).orElse("300"))));
+
+	private static Tenant loadTenant(final String tenantId) {
+		BusinessCalendar calendar;
+		AppointmentCatalog catalog;
+		MakeAppointmentPrompts prompts;
+		Path storePath;
+		if (TENANTS_PATH == null) {
+			calendar = BusinessCalendar.load();
+			catalog = AppointmentCatalog.load();
+			prompts = MakeAppointmentPrompts.load();
+			storePath = Paths.get(Optional.ofNullable(System.getenv("AVAILABILITY_STORE_PATH"))
+					.orElse("/tmp/schedule-appointment-availability.bin"));
+		} else {
+			Path directory = Paths.get(TENANTS_PATH, tenantId);
+			calendar = BusinessCalendar.load(directory.resolve("business-calendar.properties"));
+			catalog = AppointmentCatalog.load(directory.resolve("appointment-types.properties"));
+			prompts = MakeAppointmentPrompts.load(directory.resolve("make-appointment-prompts.properties"));
+			storePath = Paths.get(
+					Optional.ofNullable(System.getenv("AVAILABILITY_STORE_DIR")).orElse("/tmp"),
+					"schedule-appointment-availability-" + tenantId + ".bin");
+		}
+
+		ZoneId zoneId = calendar.getZoneId();
+		DateRecognizer dateRecognizer = DateRecognizer.forZone(zoneId);
+		AvailabilityProvider store = AVAILABILITY_STORES.computeIfAbsent(
+				tenantId,
+				id -> MappedFileAvailabilityProvider.open(
+						storePath,
+						LocalDate.now(zoneId).minusDays(1),
+						AVAILABILITY_STORE_DAYS,
+						calendar::initialAvailability));
+		return new Tenant(
+				tenantId,
+				dateRecognizer,
+				IntentRegistry.of(new MakeAppointmentIntentHandler(
+						calendar,
+						catalog,
+						prompts,
+						new CachingAvailabilityProvider(store, AVAILABILITY_CACHE_DAYS, AVAILABILITY_CACHE_TTL),
+						BOOKING_HORIZON_DAYS,
+						new BookingMapBudget(
+								new CompactBookingMapCodec(new JsonBookingMapCodec(dateRecognizer)),
+								BOOKING_MAP_MAX_BYTES))));
+	}
+
+	// Holder so log4j2 is configured on the first log call rather than while this class initializes.
+	private static final class Logging {
+		private static final Logger LOG = LogManager.getLogger(ScheduleAppointmentRequestHandler.class);
+		private static final PayloadLogger PAYLOADS = PayloadLogger.fromEnvironment(LOG);
+	}
+
+	// Holder so Lex invocations never start the batch pool's threads.
+	private static final class Batch {
+		private static final ForkJoinPool POOL = new ForkJoinPool(Integer.parseInt(
+				Optional.ofNullable(System.getenv("BATCH_PARALLELISM"))
+						.orElse(String.valueOf(Runtime.getRuntime().availableProcessors()))));
+	}
+
+	private LexResponse dispatch(final LexRequest intentRequest, final InvocationMetrics metrics) {
+		String intentName = intentRequest.getCurrentIntent().getName();
+		Tenant tenant = TENANTS.resolve(intentRequest.getBot());
+		Logging.LOG.debug(
+				"dispatch userId={}, intentName={}, tenant={}",
+				intentRequest.getUserId(),
+				intentName,
+				tenant.getId());
 
-	private String buildAvailableTimeString(final List<String> availabilities) {
-		String prefix = "We have availabilities at ";
-		if (availabilities.size() > 3) {
-			prefix = "We have plenty of availability, including ";
+		IntentHandler handler = tenant.getIntents().find(intentName);
+		if (handler == null) {
+			throw new IllegalStateException("Intent with name " + intentName + " not supported");
 		}
-
-		prefix += buildTimeOutputString(availabilities.get(0));
-		if (availabilities.size() == 2) {
-			return prefix + " and " + buildTimeOutputString(availabilities.get(1));
+		if ("FulfillmentCodeHook".equals(intentRequest.getInvocationSource())) {
+			// Lex and Lambda both retry; key the turn before the handler rewrites its slots and session.
+			return FULFILLMENTS.fulfill(
+					FulfillmentKey.of(tenant.getId(), intentRequest),
+					() -> handler.handle(new IntentRequest(intentRequest, tenant.getDateRecognizer()), metrics),
+					metrics);
 		}
-
-		return prefix
-				+ ", "
-				+ buildTimeOutputString(availabilities.get(1))
-				+ " and "
-				+ buildTimeOutputString(availabilities.get(2));
+		return handler.handle(new IntentRequest(intentRequest, tenant.getDateRecognizer()), metrics);
 	}
 
-	private List<GenericAttachmentButton> buildOptions(
-			final String slot,
-			final String appointmentType,
-			final String date,
-			final Map<String, List<String>> bookingMap) {
-		if ("AppointmentType".equals(slot)) {
-			return Arrays.asList(
-					new GenericAttachmentButton("cleaning (30 min)", "cleaning"),
-					new GenericAttachmentButton("root canal (60 min)", "root canal"),
-					new GenericAttachmentButton("whitening (30 min)", "whitening"));
-		} else if ("Date".equals(slot)) {
-			List<GenericAttachmentButton> options = new ArrayList<>();
-			LocalDate potentialDate = LocalDate.now(EASTERN_TIME_ZONE);
-			while (options.size() < 5) {
-				potentialDate = potentialDate.plusDays(1);
-				if (!"SUNDAY".equals(potentialDate.getDayOfWeek())
-						&& !"SATURDAY".equals(potentialDate.getDayOfWeek())) {
-					LOG.info("potential day of week:");
-					LOG.info(potentialDate.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH));
-					options.add(
-							new GenericAttachmentButton(
-									potentialDate.getMonthValue()
-											+ "-"
-											+ potentialDate.getDayOfMonth()
-											+ " "
-											+ DAY_STRINGS
-											.get(
-													potentialDate
-															.getDayOfWeek()
-															.getDisplayName(TextStyle.FULL, Locale.ENGLISH))
-											.get(0)
-											+ " ("
-											+ potentialDate.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH)
-											+ ")",
-									potentialDate.getYear()
-											+ "-"
-											+ potentialDate.getMonthValue()
-											+ "-"
-											+ potentialDate.getDayOfMonth()));
-				}
-			}
-			return options;
-		} else if ("Time".equals(slot)) {
-			if (appointmentType == null || appointmentType.isEmpty() || date == null || date.isEmpty()) {
-				return null;
-			}
-			List<String> availabilities = bookingMap.get(date);
-			if (availabilities == null) {
-				return null;
-			}
-
-			availabilities = getAvailabilitiesForDuration(getDuration(appointmentType), availabilities);
-			if (availabilities.isEmpty()) {
-				return null;
-			}
-			List<GenericAttachmentButton> options = new ArrayList<>();
-			for (int i = 0; i < Math.min(availabilities.size(), 5); i++) {
-				options.add(
-						new GenericAttachmentButton(
-								buildTimeOutputString(availabilities.get(i)),
-								buildTimeOutputString(availabilities.get(i))));
-			}
-
-			return options;
-		}
-
-		return null;
+	@Override
+	public LexResponse handleRequest(final LexRequest requestEvent, Context context) {
+		InvocationMetrics metrics = InvocationMetrics.begin();
+		LexResponse response = respond(requestEvent, metrics);
+		metrics.emit(System.out, context == null ? null : context.getAwsRequestId());
+		return response;
 	}
 
-	private LexResponse makeAppointment(LexRequest intentRequest) {
-		String appointmentType = intentRequest.getCurrentIntent().getSlots().get("AppointmentType");
-		String date = intentRequest.getCurrentIntent().getSlots().get("Date");
-		String appointmentTime = intentRequest.getCurrentIntent().getSlots().get("Time");
-		String source = intentRequest.getInvocationSource();
-		Map<String, String> outputSessionAttributes = intentRequest.getSessionAttributes();
-		String bookingMapStringValue;
-		if (outputSessionAttributes == null) {
-			outputSessionAttributes = new HashMap<>();
-			bookingMapStringValue = null;
-		} else {
-			bookingMapStringValue = outputSessionAttributes.get("bookingMap");
-		}
-		Map<String, List<String>> bookingMap;
-		if (bookingMapStringValue == null) {
-			bookingMap = new HashMap<>();
-		} else {
-			Type bookingMapType = new TypeToken<Map<String, List<String>>>() {
-			}.getType();
-			bookingMap = GSON.fromJson(outputSessionAttributes.get("bookingMap"), bookingMapType);
-		}
-
-		if ("DialogCodeHook".equals(source)) {
-			if ("Confirmed".equals(intentRequest.getCurrentIntent().getConfirmationStatus())) {
-				DialogActionMessage dialogActionMessage = new DialogActionMessage();
-				dialogActionMessage.setContent(
-						"Okay, I have booked your appointment. We will see you at "
-								+ buildTimeOutputString(appointmentTime)
-								+ " on "
-								+ date);
-				return close(outputSessionAttributes, dialogActionMessage);
-			}
-			Map<String, String> slots = intentRequest.getCurrentIntent().getSlots();
-			ValidationResult validationResult =
-					validateBookAppointment(appointmentType, date, appointmentTime);
-			if (!validationResult.isValid()) {
-				slots.put(validationResult.getViolatedSlot(), null);
-				return elicitSlot(
-						outputSessionAttributes,
-						intentRequest.getCurrentIntent().getName(),
-						slots,
-						validationResult.getViolatedSlot(),
-						validationResult.getDialogActionMessage(),
-						buildResponseCard(
-								"Specify " + validationResult.getViolatedSlot(),
-								validationResult.getDialogActionMessage().getContent(),
-								buildOptions(
-										validationResult.getViolatedSlot(), appointmentType, date, bookingMap)));
-			}
-
-			if (appointmentType == null || appointmentType.isEmpty()) {
-				validationResult
-						.getDialogActionMessage()
-						.setContent("What type of appointment woud you like to schedule?");
-				return elicitSlot(
-						outputSessionAttributes,
-						intentRequest.getCurrentIntent().getName(),
-						slots,
-						"AppointmentType",
-						validationResult.getDialogActionMessage(),
-						buildResponseCard(
-								"Specify Appointment Type",
-								validationResult.getDialogActionMessage().getContent(),
-								buildOptions("AppointmentType", appointmentType, date, new HashMap<>())));
-			}
-
-			if (date == null || date.isEmpty()) {
-				validationResult
-						.getDialogActionMessage()
-						.setContent("When would you like to schedule your " + appointmentType + "?");
-
-				return elicitSlot(
-						outputSessionAttributes,
-						intentRequest.getCurrentIntent().getName(),
-						slots,
-						"Date",
-						validationResult.getDialogActionMessage(),
-						buildResponseCard(
-								"Specify Date",
-								validationResult.getDialogActionMessage().getContent(),
-								buildOptions("Date", appointmentType, date, new HashMap<>())));
-			}
-
-			List<String> bookingAvailabilties = bookingMap.get(date);
-			if (bookingAvailabilties == null) {
-				bookingAvailabilties = getAvailabilities(date);
-				bookingMap.put(date, bookingAvailabilties);
-				outputSessionAttributes.put("bookingMap", GSON.toJson(bookingMap));
-			}
-
-			List<String> appointmentTypeAvailabilities =
-					getAvailabilitiesForDuration(getDuration(appointmentType), bookingAvailabilties);
-			if (appointmentTypeAvailabilities.size() == 0) {
-				slots.put("Date", null);
-				slots.put("Time", null);
-				validationResult
-						.getDialogActionMessage()
-						.setContent(
-								"We do not have any availability on that date, is there another day which works for you?");
-
-				return elicitSlot(
-						outputSessionAttributes,
-						intentRequest.getCurrentIntent().getName(),
-						slots,
-						"Date",
-						validationResult.getDialogActionMessage(),
-						buildResponseCard(
-								"Specify Date",
-								"What day works best for you?",
-								buildOptions("Date", appointmentType, date, bookingMap)));
-			}
-
-			String content = "What time on " + date + "works for you?";
-			validationResult.getDialogActionMessage().setContent(content);
-			if (appointmentTime != null && !appointmentTime.isEmpty()) {
-				outputSessionAttributes.put("formattedTime", buildTimeOutputString(appointmentTime));
-				if (isAvailable(appointmentTime, getDuration(appointmentType), bookingAvailabilties)) {
-					return delegate(outputSessionAttributes, slots);
-				}
-
-				content = "The time you requested is not available. ";
-			}
-
-			if (appointmentTypeAvailabilities.size() == 1) {
-				validationResult
-						.getDialogActionMessage()
-						.setContent(
-								content
-										+ buildTimeOutputString(appointmentTypeAvailabilities.get(0))
-										+ "is our only availability, does that work for you?");
-				slots.put("Time", appointmentTypeAvailabilities.get(0));
-				return confirmIntent(
-						outputSessionAttributes,
-						intentRequest.getCurrentIntent().getName(),
-						slots,
-						validationResult.getDialogActionMessage(),
-						buildResponseCard(
-								"Confirm Appointment",
-								"Is "
-										+ buildTimeOutputString(appointmentTypeAvailabilities.get(0))
-										+ "on "
-										+ date
-										+ " okay?",
-								Arrays.asList(
-										new GenericAttachmentButton("yes", "yes"),
-										new GenericAttachmentButton("no", "no"))));
-			}
-
-			String availableTimeString = buildAvailableTimeString(appointmentTypeAvailabilities);
-			validationResult.getDialogActionMessage().setContent(content + availableTimeString);
-			return elicitSlot(
-					outputSessionAttributes,
-					intentRequest.getCurrentIntent().getName(),
-					slots,
-					"Time",
-					validationResult.getDialogActionMessage(),
-					buildResponseCard(
-							"Specify Time",
-							"What time works best for you?",
-							buildOptions("Time", appointmentType, date, bookingMap)));
+	LexResponse respond(final LexRequest requestEvent, final InvocationMetrics metrics) {
+		boolean logPayloads = Logging.PAYLOADS.sample();
+		if (logPayloads) {
+			Logging.PAYLOADS.request(requestEvent);
 		}
-
-		// Book the appointment.  In a real bot, this would likely involve a call to a backend service.
-		Integer duration = getDuration(appointmentType);
-		List<String> bookingAvailabilities = bookingMap.get(date);
-		if (bookingAvailabilities != null && !bookingAvailabilities.isEmpty()) {
-			bookingAvailabilities.remove(appointmentTime);
-			if (duration == 60) {
-				String secondHalfHourTime = incrementTimeByThirtyMinutes(appointmentTime);
-				bookingAvailabilities.remove(secondHalfHourTime);
-			}
-			bookingMap.put(date, bookingAvailabilities);
-			outputSessionAttributes.put("bookingMap", GSON.toJson(bookingMap));
-		} else {
-			// This is not treated as an error as this code sample supports functionality either as
-			// fulfillment or dialog code hook.
-			LOG.debug(
-					"Availabilities for {} were null at fulfillment time. "
-							+ "This should have been initialized if this function was configured as the dialog code hook",
-					date);
+		metrics.setIntent(requestEvent.getCurrentIntent().getName(), requestEvent.getInvocationSource());
+		metrics.setSessionBytesIn(requestEvent.getSessionAttributes());
+		LexResponse response = dispatch(requestEvent, metrics);
+		metrics.setSessionBytesOut(response.getSessionAttributes());
+		if (logPayloads) {
+			Logging.PAYLOADS.response(response);
 		}
-		DialogActionMessage dialogActionMessage = new DialogActionMessage();
-		dialogActionMessage.setContent(
-				"Okay, I have booked your appointment. We will see you at "
-						+ buildTimeOutputString(appointmentTime)
-						+ " on "
-						+ date);
-		return close(outputSessionAttributes, dialogActionMessage);
-	}
-
-	private LexResponse dispatch(final LexRequest intentRequest) {
-		// TODO: logger.debug('dispatch userId={}, intentName={}'.format(intent_request['userId'],
-		// intent_request['currentIntent']['name']))
-		String intentName = intentRequest.getCurrentIntent().getName();
-		LOG.debug("dispatch userId={}, intentName={}", intentRequest.getUserId(), intentName);
-
-		if (intentName.equals("MakeAppointment")) {
-			return makeAppointment(intentRequest);
-		}
-
-		throw new IllegalStateException("Intent with name " + intentName + " not supported");
+		return response;
 	}
 
-	@Override
-	public LexResponse handleRequest(final LexRequest requestEvent, Context context) {
-		LOG.info(GSON.toJson(requestEvent));
-		LOG.debug("event.bot.name={}", requestEvent.getBot().getName());
-		LexResponse response = dispatch(requestEvent);
-		LOG.info(GSON.toJson(response));
-		return response;
+	/**
+	 * Answers whether each query could be booked right now at the practice {@code bot} routes to, without
+	 * booking anything; for back-office and campaign tools rather than Lex. Results come back in the order
+	 * of the queries, {@link ValidationResult#VALID} for the bookable ones.
+	 */
+	public List<ValidationResult> evaluate(final Bot bot, final Stream<BookabilityQuery> queries) {
+		Tenant tenant = TENANTS.resolve(bot);
+		IntentHandler handler = tenant.getIntents().find(MakeAppointmentIntentHandler.INTENT_NAME);
+		if (!(handler instanceof MakeAppointmentIntentHandler)) {
+			throw new IllegalStateException("Tenant " + tenant.getId() + " does not book appointments");
+		}
+		BookabilityEvaluator evaluator = new BookabilityEvaluator(
+				(MakeAppointmentIntentHandler) handler, tenant.getDateRecognizer(), Batch.POOL);
+		return evaluator.evaluate(queries);
 	}
 }
@@ -0,0 +1,43 @@
+package com.github.cairoatlas;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.github.cairoatlas.json.LexJson;
+import com.github.cairoatlas.metrics.InvocationMetrics;
+import com.github.cairoatlas.metrics.Stage;
+import com.github.cairoatlas.objects.request.LexRequest;
+import com.github.cairoatlas.objects.response.LexResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Alternative Lambda entry point that bypasses the runtime's POJO serializer. The Lex event is streamed
+ * straight into the request objects and the response is written straight to the output stream, with no
+ * intermediate JSON tree or string. Payload logging is shared with the POJO entry point.
+ */
+public class ScheduleAppointmentStreamHandler implements RequestStreamHandler {
+
+	private static final ScheduleAppointmentRequestHandler HANDLER = new ScheduleAppointmentRequestHandler();
+
+	@Override
+	public void handleRequest(final InputStream input, final OutputStream output, final Context context)
+			throws IOException {
+		InvocationMetrics metrics = InvocationMetrics.begin();
+		long stageStart = metrics.start();
+		LexRequest requestEvent = LexJson.readRequest(new InputStreamReader(input, StandardCharsets.UTF_8));
+		metrics.stop(Stage.DESERIALIZE, stageStart);
+
+		LexResponse response = HANDLER.respond(requestEvent, metrics);
+
+		Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+		LexJson.writeResponse(writer, response);
+		writer.flush();
+		metrics.emit(System.out, context == null ? null : context.getAwsRequestId());
+	}
+}
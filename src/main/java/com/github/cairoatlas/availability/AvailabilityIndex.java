@@ -0,0 +1,209 @@
+package com.github.cairoatlas.availability;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * An {@link AvailabilityProvider} that also answers "the next K days on or after X with room for an
+ * appointment of D slots" over a rolling horizon starting today. Each day is summarized by the longest free
+ * run that starts at an allowed start slot, and the days are kept in a max segment tree. A query is then a
+ * descent to the first qualifying day, O(log horizon) per day returned, instead of a scan of every day.
+ * Reads and reservations that pass through keep the summaries current without taking a lock: each node
+ * carries a write count, and a summary is only stored if its node has not been written since the delegate
+ * read behind it began, so a read that raced a reservation cannot write back an older, roomier day. The
+ * tree is rebuilt when the day changes.
+ */
+public class AvailabilityIndex implements AvailabilityProvider {
+
+	private final AvailabilityProvider delegate;
+	private final ZoneId zoneId;
+	private final int horizonDays;
+	private final ToLongFunction<LocalDate> startSlots;
+	private volatile Tree tree;
+
+	/**
+	 * @param startSlots the slots an appointment may start at on a day; none for a closed day
+	 */
+	public AvailabilityIndex(
+			final AvailabilityProvider delegate,
+			final ZoneId zoneId,
+			final int horizonDays,
+			final ToLongFunction<LocalDate> startSlots) {
+		this.delegate = delegate;
+		this.zoneId = zoneId;
+		this.horizonDays = horizonDays;
+		this.startSlots = startSlots;
+	}
+
+	@Override
+	public DayAvailability getAvailability(final LocalDate date) {
+		Tree current = tree;
+		return current == null ? delegate.getAvailability(date) : current.refresh(date);
+	}
+
+	@Override
+	public boolean reserve(final LocalDate date, final int startSlot, final int slotCount) {
+		boolean reserved = delegate.reserve(date, startSlot, slotCount);
+		Tree current = tree;
+		if (current != null) {
+			current.refresh(date);
+		}
+		return reserved;
+	}
+
+	/**
+	 * Returns up to {@code limit} days, earliest first, on or after {@code from} and within the horizon, that
+	 * have a free run of {@code slotCount} slots starting at an allowed start slot.
+	 */
+	public List<LocalDate> nextAvailableDays(final LocalDate from, final int slotCount, final int limit) {
+		Tree current = currentTree();
+		int index = (int) Math.max(0L, from.toEpochDay() - current.originEpochDay);
+		List<LocalDate> days = new ArrayList<>(limit);
+		while (days.size() < limit && index < horizonDays) {
+			index = current.firstAtLeast(index, Math.max(1, slotCount));
+			if (index < 0) {
+				break;
+			}
+			days.add(LocalDate.ofEpochDay(current.originEpochDay + index));
+			index++;
+		}
+		return days.isEmpty() ? Collections.<LocalDate>emptyList() : days;
+	}
+
+	private Tree currentTree() {
+		LocalDate today = LocalDate.now(zoneId);
+		Tree current = tree;
+		if (current == null || current.originEpochDay != today.toEpochDay()) {
+			synchronized (this) {
+				current = tree;
+				if (current == null || current.originEpochDay != today.toEpochDay()) {
+					// Publish before filling so reservations made meanwhile refresh this tree rather than the
+					// old one. Until a day is filled it reads as full, which only offers fewer days.
+					current = new Tree(today.toEpochDay(), horizonDays);
+					tree = current;
+					for (int i = 0; i < horizonDays; i++) {
+						current.refresh(today.plusDays(i));
+					}
+				}
+			}
+		}
+		return current;
+	}
+
+	/** Longest run of free slots that begins at one of {@code startSlots}. */
+	static int longestRun(final long freeSlots, final long startSlots) {
+		int longest = 0;
+		for (long starts = freeSlots & startSlots; starts != 0; starts &= starts - 1) {
+			int start = Long.numberOfTrailingZeros(starts);
+			longest = Math.max(longest, Long.numberOfTrailingZeros(~(freeSlots >>> start)));
+		}
+		return longest;
+	}
+
+	private final class Tree {
+		private final long originEpochDay;
+		private final int leaves;
+		/** Per node, a write count in the high half and the longest run below it in the low half. */
+		private final AtomicLongArray nodes;
+
+		private Tree(final long originEpochDay, final int days) {
+			this.originEpochDay = originEpochDay;
+			this.leaves = Integer.highestOneBit(Math.max(1, days - 1)) << 1;
+			this.nodes = new AtomicLongArray(2 * leaves);
+		}
+
+		/** Reads {@code date} from the delegate and, within the horizon, updates its summary with it. */
+		private DayAvailability refresh(final LocalDate date) {
+			long index = date.toEpochDay() - originEpochDay;
+			if (index < 0 || index >= horizonDays) {
+				return delegate.getAvailability(date);
+			}
+			int leaf = leaves + (int) index;
+			long allowedStarts = startSlots.applyAsLong(date);
+			while (true) {
+				long seen = nodes.get(leaf);
+				DayAvailability availability = delegate.getAvailability(date);
+				int run = longestRun(availability.freeSlots(), allowedStarts);
+				if (run == run(seen)) {
+					return availability;
+				}
+				// A failed swap means another read or reservation stored the day after this read began, so
+				// this read may be the older one: read again rather than overwrite it.
+				if (nodes.compareAndSet(leaf, seen, next(seen, run))) {
+					propagate(leaf);
+					return availability;
+				}
+			}
+		}
+
+		/**
+		 * Recomputes the ancestors of {@code leaf}. Each node is read before its children, so a swap that
+		 * succeeds was computed from children at least as new as any earlier write to the node.
+		 */
+		private void propagate(final int leaf) {
+			for (int node = leaf >> 1; node > 0; node >>= 1) {
+				while (true) {
+					long seen = nodes.get(node);
+					int max = Math.max(run(nodes.get(2 * node)), run(nodes.get(2 * node + 1)));
+					if (max == run(seen) || nodes.compareAndSet(node, seen, next(seen, max))) {
+						break;
+					}
+				}
+			}
+		}
+
+		/** First leaf at or after {@code from} whose run is at least {@code need}, or -1. */
+		private int firstAtLeast(final int from, final int need) {
+			for (int start = from; start < horizonDays; ) {
+				int index = descend(start, need);
+				if (index < 0 || index >= horizonDays) {
+					return -1;
+				}
+				// A parent that a concurrent update has yet to lower can lead to a leaf that no longer fits.
+				if (maxRun(leaves + index) >= need) {
+					return index;
+				}
+				start = index + 1;
+			}
+			return -1;
+		}
+
+		private int descend(final int from, final int need) {
+			int node = leaves + from;
+			if (maxRun(node) < need) {
+				// Climb until a right sibling covers a qualifying leaf.
+				while (true) {
+					if ((node & 1) == 0 && maxRun(node + 1) >= need) {
+						node++;
+						break;
+					}
+					node >>= 1;
+					if (node <= 1) {
+						return -1;
+					}
+				}
+			}
+			while (node < leaves) {
+				node = maxRun(2 * node) >= need ? 2 * node : 2 * node + 1;
+			}
+			return node - leaves;
+		}
+
+		private int maxRun(final int node) {
+			return run(nodes.get(node));
+		}
+	}
+
+	private static int run(final long node) {
+		return (int) node;
+	}
+
+	private static long next(final long node, final int run) {
+		return ((node >>> 32) + 1) << 32 | run;
+	}
+}
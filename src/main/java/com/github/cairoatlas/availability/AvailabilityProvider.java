@@ -0,0 +1,14 @@
+package com.github.cairoatlas.availability;
+
+import java.time.LocalDate;
+
+/**
+ * The authoritative source of free slots. Implementations must make {@link #reserve} atomic: either every
+ * slot of the range was free and is now taken, or nothing changed.
+ */
+public interface AvailabilityProvider {
+
+	DayAvailability getAvailability(LocalDate date);
+
+	boolean reserve(LocalDate date, int startSlot, int slotCount);
+}
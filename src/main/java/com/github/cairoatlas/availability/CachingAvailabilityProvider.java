@@ -0,0 +1,47 @@
+package com.github.cairoatlas.availability;
+
+import com.github.cairoatlas.cache.BoundedLoadingCache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * A bounded, container-wide cache in front of another {@link AvailabilityProvider}, held in a
+ * {@link BoundedLoadingCache}: a cached day is read without taking a lock, concurrent misses for the same
+ * day wait on a single load, days expire after {@code timeToLive}, and past {@code maxDays} the least
+ * recently read day is evicted. A reservation the cached day already rules out fails without reaching the
+ * delegate; any other reservation goes to the delegate and drops the cached day, so the next read sees the
+ * booking.
+ */
+public class CachingAvailabilityProvider implements AvailabilityProvider {
+
+	private final AvailabilityProvider delegate;
+	private final BoundedLoadingCache<LocalDate, DayAvailability> days;
+
+	public CachingAvailabilityProvider(
+			final AvailabilityProvider delegate, final int maxDays, final Duration timeToLive) {
+		this.delegate = delegate;
+		this.days = new BoundedLoadingCache<>(maxDays, timeToLive);
+	}
+
+	@Override
+	public DayAvailability getAvailability(final LocalDate date) {
+		return days.get(date, delegate::getAvailability);
+	}
+
+	@Override
+	public boolean reserve(final LocalDate date, final int startSlot, final int slotCount) {
+		DayAvailability cached = days.getIfLoaded(date);
+		if (cached != null && !cached.hasFreeRun(startSlot, slotCount)) {
+			// Slots are only ever taken, never released, so a cached day without the run cannot be stale.
+			// Losing bookers on a busy day fail here without contending for the store's lock.
+			return false;
+		}
+		try {
+			return delegate.reserve(date, startSlot, slotCount);
+		} finally {
+			// Whether or not it succeeded, the cached day no longer matches the store.
+			days.invalidate(date);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.github.cairoatlas.availability;
+
+/**
+ * The free slots of one day as a bitmask, bit {@code n} standing for slot {@code n} of
+ * {@link HalfHourSlots}. Instances are immutable; booking returns a new instance.
+ */
+public final class DayAvailability {
+
+	public static final DayAvailability NONE = new DayAvailability(0L);
+
+	private final long freeSlots;
+
+	private DayAvailability(final long freeSlots) {
+		this.freeSlots = freeSlots;
+	}
+
+	public static DayAvailability of(final long freeSlots) {
+		return freeSlots == 0L ? NONE : new DayAvailability(freeSlots);
+	}
+
+	public long freeSlots() {
+		return freeSlots;
+	}
+
+	public boolean isEmpty() {
+		return freeSlots == 0L;
+	}
+
+	public int freeSlotCount() {
+		return Long.bitCount(freeSlots);
+	}
+
+	public boolean isFree(final int slot) {
+		return slot >= 0 && slot < Long.SIZE && (freeSlots & (1L << slot)) != 0;
+	}
+
+	public boolean hasFreeRun(final int start, final int length) {
+		if (start < 0 || length < 1 || start + length > Long.SIZE) {
+			return false;
+		}
+		long run = runMask(start, length);
+		return (freeSlots & run) == run;
+	}
+
+	/**
+	 * Returns a mask with bit {@code n} set when slots {@code n} to {@code n + length - 1} are all free.
+	 * Runs are widened by doubling, so this costs {@code O(log length)} shifts for any length.
+	 */
+	public long freeRunStarts(final int length) {
+		if (length < 1) {
+			throw new IllegalArgumentException("Run length must be positive, was " + length);
+		}
+		if (length > Long.SIZE) {
+			return 0L;
+		}
+		long starts = freeSlots;
+		int covered = 1;
+		while (covered * 2 <= length) {
+			starts &= starts >>> covered;
+			covered *= 2;
+		}
+		if (covered < length) {
+			starts &= starts >>> (length - covered);
+		}
+		return starts;
+	}
+
+	public DayAvailability withFree(final int slot) {
+		return of(freeSlots | (1L << slot));
+	}
+
+	public DayAvailability withoutRun(final int start, final int length) {
+		if (start < 0 || length < 1 || start >= Long.SIZE) {
+			return this;
+		}
+		return of(freeSlots & ~runMask(start, Math.min(length, Long.SIZE - start)));
+	}
+
+	private static long runMask(final int start, final int length) {
+		return (length >= Long.SIZE ? -1L : (1L << length) - 1) << start;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		return o instanceof DayAvailability && ((DayAvailability) o).freeSlots == freeSlots;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(freeSlots);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("[");
+		for (long remaining = freeSlots; remaining != 0; remaining &= remaining - 1) {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(HalfHourSlots.timeOf(Long.numberOfTrailingZeros(remaining)));
+		}
+		return builder.append(']').toString();
+	}
+}
@@ -0,0 +1,69 @@
+package com.github.cairoatlas.availability;
+
+/**
+ * Maps "H:mm" times onto the 48 half-hour slots of a day, slot 0 being midnight. The labels are
+ * precomputed so converting a slot back to text never allocates.
+ */
+public final class HalfHourSlots {
+
+	public static final int SLOTS_PER_DAY = 48;
+
+	public static final int SLOT_MINUTES = 30;
+
+	private static final String[] LABELS = new String[SLOTS_PER_DAY];
+
+	private static final String[] PADDED_LABELS = new String[SLOTS_PER_DAY];
+
+	static {
+		for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+			LABELS[slot] = (slot / 2) + (slot % 2 == 0 ? ":00" : ":30");
+			PADDED_LABELS[slot] = (slot < 20 ? "0" : "") + LABELS[slot];
+		}
+	}
+
+	private HalfHourSlots() {
+	}
+
+	/** Returns the slot for "H:mm" or "HH:mm" on a half-hour boundary, or -1 for anything else. */
+	public static int indexOf(final String time) {
+		if (time == null) {
+			return -1;
+		}
+		int colon = time.indexOf(':');
+		if (colon < 1 || colon > 2 || time.length() != colon + 3) {
+			return -1;
+		}
+		int hour = digits(time, 0, colon);
+		int minute = digits(time, colon + 1, colon + 3);
+		if (hour < 0 || hour > 23 || (minute != 0 && minute != 30)) {
+			return -1;
+		}
+		return hour * 2 + minute / 30;
+	}
+
+	public static String timeOf(final int slot) {
+		return LABELS[slot];
+	}
+
+	/** Returns the slot as "HH:mm", the form Lex fills a time slot with. */
+	public static String paddedTimeOf(final int slot) {
+		return PADDED_LABELS[slot];
+	}
+
+	/** Returns how many slots an appointment of the given length occupies, rounding up. */
+	public static int slotsFor(final int durationMinutes) {
+		return (durationMinutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+	}
+
+	private static int digits(final String text, final int from, final int to) {
+		int value = 0;
+		for (int i = from; i < to; i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+}
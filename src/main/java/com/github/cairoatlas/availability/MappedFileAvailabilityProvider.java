@@ -0,0 +1,130 @@
+package com.github.cairoatlas.availability;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Keeps one 8-byte record per day in a memory-mapped file, addressed by the day's offset from the origin
+ * stored in the header, so a lookup is a single absolute read. A day is seeded from
+ * {@code initialAvailability} the first time it is touched; bit 63 of the record marks it as seeded.
+ * Reads and reservations for a day run under one of a fixed set of striped locks, which makes
+ * {@link #reserve} atomic within the container. The file is not locked against other processes.
+ */
+public class MappedFileAvailabilityProvider implements AvailabilityProvider {
+
+	private static final int MAGIC = 0x4C584156;
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 32;
+	private static final int RECORD_BYTES = Long.BYTES;
+	private static final long SEEDED = 1L << 63;
+	private static final int LOCK_STRIPES = 64;
+
+	private final MappedByteBuffer buffer;
+	private final long originEpochDay;
+	private final int capacityDays;
+	private final Function<LocalDate, DayAvailability> initialAvailability;
+	private final Object[] locks = new Object[LOCK_STRIPES];
+
+	private MappedFileAvailabilityProvider(
+			final MappedByteBuffer buffer,
+			final long originEpochDay,
+			final int capacityDays,
+			final Function<LocalDate, DayAvailability> initialAvailability) {
+		this.buffer = buffer;
+		this.originEpochDay = originEpochDay;
+		this.capacityDays = capacityDays;
+		this.initialAvailability = initialAvailability;
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	/**
+	 * Opens the store at {@code file}, creating it with room for {@code capacityDays} days starting at
+	 * {@code origin} when it is missing or was written with a different layout.
+	 */
+	public static MappedFileAvailabilityProvider open(
+			final Path file,
+			final LocalDate origin,
+			final int capacityDays,
+			final Function<LocalDate, DayAvailability> initialAvailability) {
+		long size = HEADER_BYTES + (long) capacityDays * RECORD_BYTES;
+		try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+			boolean reuse = channel.size() == size;
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			if (reuse && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+					&& buffer.getInt(16) == capacityDays) {
+				return new MappedFileAvailabilityProvider(
+						buffer, buffer.getLong(8), capacityDays, initialAvailability);
+			}
+
+			for (int offset = 0; offset < size; offset += RECORD_BYTES) {
+				buffer.putLong(offset, 0L);
+			}
+			buffer.putLong(8, origin.toEpochDay());
+			buffer.putInt(16, capacityDays);
+			buffer.putInt(4, VERSION);
+			buffer.putInt(0, MAGIC);
+			return new MappedFileAvailabilityProvider(
+					buffer, origin.toEpochDay(), capacityDays, initialAvailability);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not open availability store " + file, e);
+		}
+	}
+
+	@Override
+	public DayAvailability getAvailability(final LocalDate date) {
+		int index = indexOf(date);
+		if (index < 0) {
+			return DayAvailability.NONE;
+		}
+		synchronized (locks[index % LOCK_STRIPES]) {
+			return DayAvailability.of(seededRecord(date, index) & ~SEEDED);
+		}
+	}
+
+	@Override
+	public boolean reserve(final LocalDate date, final int startSlot, final int slotCount) {
+		int index = indexOf(date);
+		if (index < 0) {
+			return false;
+		}
+		synchronized (locks[index % LOCK_STRIPES]) {
+			long record = seededRecord(date, index);
+			DayAvailability availability = DayAvailability.of(record & ~SEEDED);
+			if (!availability.hasFreeRun(startSlot, slotCount)) {
+				return false;
+			}
+			buffer.putLong(offsetOf(index), availability.withoutRun(startSlot, slotCount).freeSlots() | SEEDED);
+			return true;
+		}
+	}
+
+	// callers hold the day's stripe lock
+	private long seededRecord(final LocalDate date, final int index) {
+		long record = buffer.getLong(offsetOf(index));
+		if ((record & SEEDED) == 0) {
+			record = initialAvailability.apply(date).freeSlots() | SEEDED;
+			buffer.putLong(offsetOf(index), record);
+		}
+		return record;
+	}
+
+	private int indexOf(final LocalDate date) {
+		long index = date.toEpochDay() - originEpochDay;
+		return index < 0 || index >= capacityDays ? -1 : (int) index;
+	}
+
+	private static int offsetOf(final int index) {
+		return HEADER_BYTES + index * RECORD_BYTES;
+	}
+}
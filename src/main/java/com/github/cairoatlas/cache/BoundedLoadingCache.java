@@ -0,0 +1,120 @@
+package com.github.cairoatlas.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded map of loaded values. A hit is a lock-free read. Concurrent misses for one key wait on a single
+ * load, and a load that throws is not cached. Entries expire after {@code timeToLive}. Past {@code
+ * maxEntries}, the least recently used entry other than the one just loaded is evicted. Finding it scans
+ * the map, but only on a miss that grows the map past its bound, so the scan stays off the hit path.
+ */
+public final class BoundedLoadingCache<K, V> {
+
+	private final int maxEntries;
+	private final long timeToLiveNanos;
+	private final LongSupplier ticker;
+	private final ConcurrentHashMap<K, Entry<V>> entries;
+
+	/** A cache whose entries stay until evicted or invalidated. */
+	public BoundedLoadingCache(final int maxEntries) {
+		this(maxEntries, Long.MAX_VALUE, System::nanoTime);
+	}
+
+	public BoundedLoadingCache(final int maxEntries, final Duration timeToLive) {
+		this(maxEntries, timeToLive.toNanos(), System::nanoTime);
+	}
+
+	/** @param ticker nanosecond readings that stamp loads and uses, {@code System::nanoTime} outside tests */
+	BoundedLoadingCache(final int maxEntries, final long timeToLiveNanos, final LongSupplier ticker) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("maxEntries must be positive, was " + maxEntries);
+		}
+		this.maxEntries = maxEntries;
+		this.timeToLiveNanos = timeToLiveNanos;
+		this.ticker = ticker;
+		this.entries = new ConcurrentHashMap<>(Math.min(maxEntries, 1024));
+	}
+
+	/** The value cached for {@code key}, loading it with {@code loader} when it is missing or expired. */
+	public V get(final K key, final Function<? super K, ? extends V> loader) {
+		long now = ticker.getAsLong();
+		Entry<V> cached = entries.get(key);
+		if (cached != null && now - cached.loadedAt < timeToLiveNanos) {
+			cached.lastUsed = now;
+			return cached.value.join();
+		}
+
+		Entry<V> fresh = new Entry<>(now);
+		Entry<V> winner = cached == null
+				? entries.putIfAbsent(key, fresh)
+				: entries.replace(key, cached, fresh) ? null : entries.get(key);
+		if (winner != null) {
+			winner.lastUsed = now;
+			return winner.value.join();
+		}
+
+		try {
+			fresh.value.complete(loader.apply(key));
+		} catch (RuntimeException e) {
+			entries.remove(key, fresh);
+			fresh.value.completeExceptionally(e);
+			throw e;
+		}
+		if (entries.size() > maxEntries) {
+			evictLeastRecentlyUsed(key);
+		}
+		return fresh.value.join();
+	}
+
+	/**
+	 * The value loaded for {@code key}, even if it has expired, or null while it is missing, still loading or
+	 * failed. Does not count as a use.
+	 */
+	public V getIfLoaded(final K key) {
+		Entry<V> cached = entries.get(key);
+		if (cached == null || !cached.value.isDone() || cached.value.isCompletedExceptionally()) {
+			return null;
+		}
+		return cached.value.join();
+	}
+
+	public void invalidate(final K key) {
+		entries.remove(key);
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private void evictLeastRecentlyUsed(final K keep) {
+		while (entries.size() > maxEntries) {
+			Map.Entry<K, Entry<V>> oldest = null;
+			for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+				if (!entry.getKey().equals(keep)
+						&& (oldest == null || entry.getValue().lastUsed - oldest.getValue().lastUsed < 0)) {
+					oldest = entry;
+				}
+			}
+			if (oldest == null) {
+				return;
+			}
+			entries.remove(oldest.getKey(), oldest.getValue());
+		}
+	}
+
+	private static final class Entry<V> {
+		private final long loadedAt;
+		private final CompletableFuture<V> value = new CompletableFuture<>();
+		private volatile long lastUsed;
+
+		private Entry(final long loadedAt) {
+			this.loadedAt = loadedAt;
+			this.lastUsed = loadedAt;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package com.github.cairoatlas.calendar;
+
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.availability.HalfHourSlots;
+import com.github.cairoatlas.config.PropertiesFiles;
+
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time zone, opening hours, holidays, start granularity and the initial provider schedule, compiled from
+ * {@code business-calendar.properties} into per-weekday slot masks and a holiday bitset indexed by epoch
+ * day. Every question the bot asks of the calendar is an array or bit lookup.
+ */
+public final class BusinessCalendar {
+
+	private static final String RESOURCE = "/business-calendar.properties";
+
+	private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
+	private final long[] openSlots;
+	private final long[] startSlots;
+	private final long anyDayOpenSlots;
+	private final long anyDayStartSlots;
+	private final long firstHolidayEpochDay;
+	private final BitSet holidays;
+	private final long[] scheduledSlots;
+	private final double[] randomOpeningProbability;
+	private final String hoursDescription;
+	private final ZoneId zoneId;
+
+	private BusinessCalendar(
+			final long[] openSlots,
+			final long[] startSlots,
+			final long firstHolidayEpochDay,
+			final BitSet holidays,
+			final long[] scheduledSlots,
+			final double[] randomOpeningProbability,
+			final String hoursDescription,
+			final ZoneId zoneId) {
+		this.openSlots = openSlots;
+		this.startSlots = startSlots;
+		this.firstHolidayEpochDay = firstHolidayEpochDay;
+		this.holidays = holidays;
+		this.scheduledSlots = scheduledSlots;
+		this.randomOpeningProbability = randomOpeningProbability;
+		this.hoursDescription = hoursDescription;
+		this.zoneId = zoneId;
+		long anyOpen = 0L;
+		long anyStart = 0L;
+		for (int day = 0; day < DAYS.length; day++) {
+			anyOpen |= openSlots[day];
+			anyStart |= startSlots[day];
+		}
+		this.anyDayOpenSlots = anyOpen;
+		this.anyDayStartSlots = anyStart;
+	}
+
+	/** Loads the file named by {@code BUSINESS_CALENDAR_PATH}, or the bundled calendar when it is unset. */
+	public static BusinessCalendar load() {
+		return compile(PropertiesFiles.fromEnvironment("BUSINESS_CALENDAR_PATH", RESOURCE));
+	}
+
+	/** Loads {@code file}, or the bundled calendar when it is null or missing. */
+	public static BusinessCalendar load(final Path file) {
+		return compile(PropertiesFiles.load(file, RESOURCE));
+	}
+
+	public static BusinessCalendar compile(final Properties properties) {
+		int startEvery = Integer.parseInt(properties.getProperty("slot.startEveryMinutes", "30").trim());
+		if (startEvery <= 0 || startEvery % HalfHourSlots.SLOT_MINUTES != 0) {
+			throw new IllegalArgumentException(
+					"slot.startEveryMinutes must be a positive multiple of " + HalfHourSlots.SLOT_MINUTES);
+		}
+		int startStep = startEvery / HalfHourSlots.SLOT_MINUTES;
+
+		long[] openSlots = new long[DAYS.length];
+		long[] startSlots = new long[DAYS.length];
+		long[] scheduledSlots = new long[DAYS.length];
+		double[] randomOpeningProbability = new double[DAYS.length];
+		for (DayOfWeek day : DAYS) {
+			String name = day.name().toLowerCase(Locale.ROOT);
+			String hours = properties.getProperty("hours." + name, "").trim();
+			if (!hours.isEmpty()) {
+				int dash = hours.indexOf('-');
+				int open = dash < 0 ? -1 : HalfHourSlots.indexOf(hours.substring(0, dash).trim());
+				int close = dash < 0 ? -1 : closingSlot(hours.substring(dash + 1).trim());
+				if (open < 0 || close <= open) {
+					throw new IllegalArgumentException("Bad hours." + name + ": " + hours);
+				}
+				openSlots[day.ordinal()] = ((1L << (close - open)) - 1) << open;
+				for (int slot = open; slot < close; slot += startStep) {
+					startSlots[day.ordinal()] |= 1L << slot;
+				}
+			}
+
+			String schedule = properties.getProperty("schedule." + name, "").trim();
+			if (schedule.startsWith("random:")) {
+				randomOpeningProbability[day.ordinal()] =
+						Double.parseDouble(schedule.substring("random:".length()));
+			} else if (!schedule.isEmpty()) {
+				for (String time : schedule.split(",")) {
+					int slot = HalfHourSlots.indexOf(time.trim());
+					if (slot < 0) {
+						throw new IllegalArgumentException("Bad schedule." + name + ": " + schedule);
+					}
+					scheduledSlots[day.ordinal()] |= 1L << slot;
+				}
+			}
+		}
+
+		String[] holidayDates = properties.getProperty("holidays", "").trim().split("\\s*,\\s*");
+		long first = Long.MAX_VALUE;
+		for (String holiday : holidayDates) {
+			if (!holiday.isEmpty()) {
+				first = Math.min(first, LocalDate.parse(holiday).toEpochDay());
+			}
+		}
+		BitSet holidays = new BitSet();
+		for (String holiday : holidayDates) {
+			if (!holiday.isEmpty()) {
+				holidays.set((int) (LocalDate.parse(holiday).toEpochDay() - first));
+			}
+		}
+
+		return new BusinessCalendar(
+				openSlots,
+				startSlots,
+				first,
+				holidays,
+				scheduledSlots,
+				randomOpeningProbability,
+				properties.getProperty("hours.description", "").trim(),
+				ZoneId.of(properties.getProperty("zone", "America/New_York").trim()));
+	}
+
+	// "24:00" closes at midnight, which is not a slot of its own.
+	private static int closingSlot(final String time) {
+		return "24:00".equals(time) ? HalfHourSlots.SLOTS_PER_DAY : HalfHourSlots.indexOf(time);
+	}
+
+	public boolean isHoliday(final LocalDate date) {
+		long index = date.toEpochDay() - firstHolidayEpochDay;
+		return index >= 0 && index < Integer.MAX_VALUE && holidays.get((int) index);
+	}
+
+	/** True when the office opens at all on the date's weekday, holidays aside. */
+	public boolean isWorkingWeekday(final DayOfWeek dayOfWeek) {
+		return openSlots[dayOfWeek.ordinal()] != 0L;
+	}
+
+	public boolean isOpen(final LocalDate date) {
+		return isWorkingWeekday(date.getDayOfWeek()) && !isHoliday(date);
+	}
+
+	/** Slots an appointment may start at on the date; none when the office is closed. */
+	public long startSlots(final LocalDate date) {
+		return isHoliday(date) ? 0L : startSlots[date.getDayOfWeek().ordinal()];
+	}
+
+	/** Slots the office is open on the date's weekday, or on any weekday when {@code date} is null. */
+	public long openSlots(final LocalDate date) {
+		return date == null ? anyDayOpenSlots : openSlots[date.getDayOfWeek().ordinal()];
+	}
+
+	/** Start slots on the date's weekday, or on any weekday when {@code date} is null. */
+	public long weekdayStartSlots(final LocalDate date) {
+		return date == null ? anyDayStartSlots : startSlots[date.getDayOfWeek().ordinal()];
+	}
+
+	public String getHoursDescription() {
+		return hoursDescription;
+	}
+
+	/** The office's time zone, which decides what "today" is. */
+	public ZoneId getZoneId() {
+		return zoneId;
+	}
+
+	/** The openings a day starts with before any booking, per the configured provider schedule. */
+	public DayAvailability initialAvailability(final LocalDate date) {
+		if (!isOpen(date)) {
+			return DayAvailability.NONE;
+		}
+		int day = date.getDayOfWeek().ordinal();
+		long availabilities = scheduledSlots[day];
+		double probability = randomOpeningProbability[day];
+		if (probability > 0) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			// Each hour with a start slot opens on the hour, the half hour or both.
+			for (int hour = 0; hour < HalfHourSlots.SLOTS_PER_DAY / 2; hour++) {
+				if ((startSlots[day] >>> (hour * 2) & 3L) != 0 && random.nextDouble() < probability) {
+					long onTheHour = 1L << (hour * 2);
+					long onTheHalfHour = onTheHour << 1;
+					int appointmentType = random.nextInt(3);
+					if (appointmentType == 0) {
+						availabilities |= onTheHour;
+					} else if (appointmentType == 1) {
+						availabilities |= onTheHalfHour;
+					} else {
+						availabilities |= onTheHour | onTheHalfHour;
+					}
+				}
+			}
+		}
+		return DayAvailability.of(availabilities);
+	}
+}
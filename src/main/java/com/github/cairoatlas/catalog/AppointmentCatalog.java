@@ -0,0 +1,195 @@
+package com.github.cairoatlas.catalog;
+
+import com.github.cairoatlas.availability.HalfHourSlots;
+import com.github.cairoatlas.config.PropertiesFiles;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The appointment types the bot books, compiled from {@code appointment-types.properties}. Names and
+ * synonyms sit in an open-addressing table keyed by their normalized form; {@link #find} normalizes the
+ * customer's text while it hashes and compares, so a lookup never allocates.
+ */
+public final class AppointmentCatalog {
+
+	private static final String RESOURCE = "/appointment-types.properties";
+
+	private final List<AppointmentType> types;
+	private final String description;
+	private final String[] keys;
+	private final AppointmentType[] values;
+	private final int mask;
+
+	private AppointmentCatalog(
+			final List<AppointmentType> types,
+			final String description,
+			final String[] keys,
+			final AppointmentType[] values) {
+		this.types = Collections.unmodifiableList(types);
+		this.description = description;
+		this.keys = keys;
+		this.values = values;
+		this.mask = keys.length - 1;
+	}
+
+	/** Loads the file named by {@code APPOINTMENT_CATALOG_PATH}, or the bundled catalog when it is unset. */
+	public static AppointmentCatalog load() {
+		return compile(PropertiesFiles.fromEnvironment("APPOINTMENT_CATALOG_PATH", RESOURCE));
+	}
+
+	/** Loads {@code file}, or the bundled catalog when it is null or missing. */
+	public static AppointmentCatalog load(final Path file) {
+		return compile(PropertiesFiles.load(file, RESOURCE));
+	}
+
+	public static AppointmentCatalog compile(final Properties properties) {
+		List<AppointmentType> types = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		List<AppointmentType> named = new ArrayList<>();
+		for (String id : properties.getProperty("types", "").split(",")) {
+			id = id.trim();
+			if (id.isEmpty()) {
+				continue;
+			}
+			String prefix = "type." + id + ".";
+			String name = properties.getProperty(prefix + "name", id).trim();
+			int duration = Integer.parseInt(properties.getProperty(prefix + "duration", "").trim());
+			if (duration <= 0 || duration > HalfHourSlots.SLOTS_PER_DAY * HalfHourSlots.SLOT_MINUTES) {
+				throw new IllegalArgumentException("Bad " + prefix + "duration: " + duration);
+			}
+			AppointmentType type = new AppointmentType(name, duration);
+			types.add(type);
+			names.add(name);
+			named.add(type);
+			for (String synonym : properties.getProperty(prefix + "synonyms", "").split(",")) {
+				if (!synonym.trim().isEmpty()) {
+					names.add(synonym);
+					named.add(type);
+				}
+			}
+		}
+		if (types.isEmpty()) {
+			throw new IllegalArgumentException("The appointment catalog lists no types");
+		}
+
+		// At most half full, so probes stay short.
+		int capacity = Integer.highestOneBit(names.size() * 2 - 1) << 1;
+		String[] keys = new String[capacity];
+		AppointmentType[] values = new AppointmentType[capacity];
+		for (int i = 0; i < names.size(); i++) {
+			String key = normalize(names.get(i));
+			if (key.isEmpty()) {
+				throw new IllegalArgumentException("Blank appointment type name: '" + names.get(i) + "'");
+			}
+			int index = hash(key) & (capacity - 1);
+			while (keys[index] != null) {
+				if (keys[index].equals(key)) {
+					throw new IllegalArgumentException("Appointment type name listed twice: " + names.get(i));
+				}
+				index = (index + 1) & (capacity - 1);
+			}
+			keys[index] = key;
+			values[index] = named.get(i);
+		}
+
+		return new AppointmentCatalog(types, properties.getProperty("description", "").trim(), keys, values);
+	}
+
+	/** The type named or aliased by {@code text}, or null when there is none. */
+	public AppointmentType find(final CharSequence text) {
+		if (text == null) {
+			return null;
+		}
+		int index = hash(text) & mask;
+		for (String key = keys[index]; key != null; key = keys[index]) {
+			if (matches(text, key)) {
+				return values[index];
+			}
+			index = (index + 1) & mask;
+		}
+		return null;
+	}
+
+	/** Every type in configured order, which is the order their buttons are offered in. */
+	public List<AppointmentType> getTypes() {
+		return types;
+	}
+
+	/** The types as spoken when the customer names one the catalog does not know. */
+	public String getDescription() {
+		return description;
+	}
+
+	private static boolean isSeparator(final char c) {
+		return c == ' ' || c == '\t' || c == '-' || c == '_';
+	}
+
+	/*
+	 * The normalized form lowercases every character, drops leading and trailing separators and turns each
+	 * inner run of separators into one space. hash and matches walk that form without building it.
+	 */
+
+	private static String normalize(final CharSequence text) {
+		StringBuilder builder = new StringBuilder(text.length());
+		boolean gap = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (isSeparator(c)) {
+				gap = builder.length() > 0;
+				continue;
+			}
+			if (gap) {
+				builder.append(' ');
+				gap = false;
+			}
+			builder.append(Character.toLowerCase(c));
+		}
+		return builder.toString();
+	}
+
+	private static int hash(final CharSequence text) {
+		int hash = 0;
+		boolean started = false;
+		boolean gap = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (isSeparator(c)) {
+				gap = started;
+				continue;
+			}
+			if (gap) {
+				hash = 31 * hash + ' ';
+				gap = false;
+			}
+			hash = 31 * hash + Character.toLowerCase(c);
+			started = true;
+		}
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean matches(final CharSequence text, final String key) {
+		int matched = 0;
+		boolean gap = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (isSeparator(c)) {
+				gap = matched > 0;
+				continue;
+			}
+			if (gap) {
+				if (matched == key.length() || key.charAt(matched++) != ' ') {
+					return false;
+				}
+				gap = false;
+			}
+			if (matched == key.length() || key.charAt(matched++) != Character.toLowerCase(c)) {
+				return false;
+			}
+		}
+		return matched == key.length();
+	}
+}
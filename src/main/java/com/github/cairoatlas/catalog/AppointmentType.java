@@ -0,0 +1,35 @@
+package com.github.cairoatlas.catalog;
+
+import com.github.cairoatlas.availability.HalfHourSlots;
+
+/** One bookable procedure: the name the bot speaks, its length, and the half-hour slots it occupies. */
+public final class AppointmentType {
+
+	private final String name;
+	private final int durationMinutes;
+	private final int slotCount;
+
+	AppointmentType(final String name, final int durationMinutes) {
+		this.name = name;
+		this.durationMinutes = durationMinutes;
+		this.slotCount = HalfHourSlots.slotsFor(durationMinutes);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getDurationMinutes() {
+		return durationMinutes;
+	}
+
+	/** How many consecutive half-hour slots the appointment needs, its length rounded up. */
+	public int getSlotCount() {
+		return slotCount;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + durationMinutes + " min)";
+	}
+}
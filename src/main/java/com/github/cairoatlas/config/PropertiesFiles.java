@@ -0,0 +1,53 @@
+package com.github.cairoatlas.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/** Reads the bot's configuration files, each of which ships as a classpath resource with its defaults. */
+public final class PropertiesFiles {
+
+	private PropertiesFiles() {
+	}
+
+	/** Reads the file named by environment variable {@code variable}, or {@code resource} when it is unset. */
+	public static Properties fromEnvironment(final String variable, final String resource) {
+		String path = System.getenv(variable);
+		return load(path == null || path.isEmpty() ? null : Paths.get(path), resource);
+	}
+
+	/** Reads {@code file}, which has no bundled defaults to fall back on. */
+	public static Properties load(final Path file) {
+		if (!Files.isRegularFile(file)) {
+			throw new IllegalStateException("No configuration at " + file);
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			properties.load(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read " + file, e);
+		}
+		return properties;
+	}
+
+	/** Reads {@code file}, or the bundled {@code resource} when {@code file} is null or missing. */
+	public static Properties load(final Path file, final String resource) {
+		Properties properties = new Properties();
+		boolean bundled = file == null || !Files.exists(file);
+		try (InputStream in = bundled
+				? PropertiesFiles.class.getResourceAsStream(resource)
+				: Files.newInputStream(file)) {
+			if (in == null) {
+				throw new IllegalStateException("No configuration at " + resource);
+			}
+			properties.load(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read " + (bundled ? resource : file), e);
+		}
+		return properties;
+	}
+}
@@ -0,0 +1,206 @@
+package com.github.cairoatlas.date;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Recognizes the date shapes the bot has always accepted ("June 5, 2020", "Jun 05, 20", "6 5, 2020",
+ * "2020-06-05", "6/5/20", "06-05-2020") in a single left-to-right scan, without building formatters or
+ * throwing on a mismatch. Out-of-range day and month values roll over the way a lenient
+ * {@code SimpleDateFormat} does, and text after a complete date is ignored.
+ *
+ * <p>Every field is an unsigned number that fits an {@code int}. {@code SimpleDateFormat} also took a leading
+ * minus and rolled backwards ("-1/5/2026" was November 5, 2025); such input is now rejected, as is a field
+ * too large to roll over into a sane year. Dates are proleptic Gregorian throughout, so years before 1583
+ * no longer shift by the Julian calendar's offset.
+ */
+public final class DateRecognizer {
+
+	private static final String[] MONTH_NAMES = {
+			"january", "february", "march", "april", "may", "june",
+			"july", "august", "september", "october", "november", "december"
+	};
+
+	private static final int SHORT_MONTH_LENGTH = 3;
+
+	private final int centuryStartYear;
+
+	private DateRecognizer(final int centuryStartYear) {
+		this.centuryStartYear = centuryStartYear;
+	}
+
+	/**
+	 * Two-digit years resolve into the hundred years starting eighty years before today, as they do for
+	 * {@code SimpleDateFormat}.
+	 */
+	public static DateRecognizer forZone(final ZoneId zoneId) {
+		return new DateRecognizer(LocalDate.now(zoneId).getYear() - 80);
+	}
+
+	public Optional<LocalDate> recognize(final CharSequence input) {
+		if (input == null) {
+			return Optional.empty();
+		}
+		Scanner scanner = new Scanner(input);
+		scanner.skipSpaces();
+		if (!scanner.hasNext()) {
+			return Optional.empty();
+		}
+
+		if (Character.isLetter(scanner.peek())) {
+			int month = scanner.monthName();
+			if (month < 0) {
+				return Optional.empty();
+			}
+			return dayCommaYear(scanner, month);
+		}
+
+		int firstStart = scanner.position;
+		long first = scanner.number();
+		if (first < 0) {
+			return Optional.empty();
+		}
+		int firstDigits = scanner.position - firstStart;
+		if (!scanner.hasNext()) {
+			return Optional.empty();
+		}
+
+		char separator = scanner.peek();
+		if (separator == ' ') {
+			return dayCommaYear(scanner, first);
+		}
+		if (separator != '/' && separator != '-') {
+			return Optional.empty();
+		}
+		scanner.position++;
+		long second = scanner.number();
+		if (second < 0 || !scanner.accept(separator)) {
+			return Optional.empty();
+		}
+		int thirdStart = scanner.position;
+		long third = scanner.number();
+		if (third < 0) {
+			return Optional.empty();
+		}
+		int thirdDigits = scanner.position - thirdStart;
+
+		if (separator == '-' && firstDigits == 4) {
+			return toDate(first, second, third);
+		}
+		return toDate(year(third, thirdDigits), first, second);
+	}
+
+	private Optional<LocalDate> dayCommaYear(final Scanner scanner, final long month) {
+		if (!scanner.accept(' ')) {
+			return Optional.empty();
+		}
+		long day = scanner.number();
+		if (day < 0 || !scanner.accept(',') || !scanner.accept(' ')) {
+			return Optional.empty();
+		}
+		int yearStart = scanner.position;
+		long year = scanner.number();
+		if (year < 0) {
+			return Optional.empty();
+		}
+		return toDate(year(year, scanner.position - yearStart), month, day);
+	}
+
+	private long year(final long year, final int digits) {
+		if (digits != 2) {
+			return year;
+		}
+		long candidate = (centuryStartYear / 100) * 100 + year;
+		return candidate < centuryStartYear ? candidate + 100 : candidate;
+	}
+
+	private static Optional<LocalDate> toDate(final long year, final long month, final long day) {
+		if (year > LocalDate.MAX.getYear() || month > Integer.MAX_VALUE || day > Integer.MAX_VALUE) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(
+					LocalDate.of((int) year, 1, 1).plusMonths(month - 1).plusDays(day - 1));
+		} catch (RuntimeException e) {
+			// only reachable for rollovers past LocalDate.MAX
+			return Optional.empty();
+		}
+	}
+
+	private static final class Scanner {
+		private final CharSequence text;
+		private int position;
+
+		private Scanner(final CharSequence text) {
+			this.text = text;
+		}
+
+		private boolean hasNext() {
+			return position < text.length();
+		}
+
+		private char peek() {
+			return text.charAt(position);
+		}
+
+		private void skipSpaces() {
+			while (hasNext() && (peek() == ' ' || peek() == '\t')) {
+				position++;
+			}
+		}
+
+		private boolean accept(final char expected) {
+			if (hasNext() && peek() == expected) {
+				position++;
+				return true;
+			}
+			return false;
+		}
+
+		/** Returns the unsigned integer at the cursor, or -1 when there is none or it overflows. */
+		private long number() {
+			skipSpaces();
+			int start = position;
+			long value = 0;
+			while (hasNext() && peek() >= '0' && peek() <= '9') {
+				value = value * 10 + (peek() - '0');
+				if (value > Integer.MAX_VALUE) {
+					return -1;
+				}
+				position++;
+			}
+			return position == start ? -1 : value;
+		}
+
+		/** Matches a full or three-letter month name, preferring the full name; returns 1-12 or -1. */
+		private int monthName() {
+			for (int i = 0; i < MONTH_NAMES.length; i++) {
+				String name = MONTH_NAMES[i];
+				if (matches(name, name.length())) {
+					position += name.length();
+					return i + 1;
+				}
+			}
+			for (int i = 0; i < MONTH_NAMES.length; i++) {
+				if (matches(MONTH_NAMES[i], SHORT_MONTH_LENGTH)) {
+					position += SHORT_MONTH_LENGTH;
+					return i + 1;
+				}
+			}
+			return -1;
+		}
+
+		private boolean matches(final String name, final int length) {
+			if (text.length() - position < length) {
+				return false;
+			}
+			for (int i = 0; i < length; i++) {
+				if (Character.toLowerCase(text.charAt(position + i)) != name.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.github.cairoatlas.idempotency;
+
+import com.github.cairoatlas.metrics.InvocationMetrics;
+import com.github.cairoatlas.objects.response.LexResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers recent fulfillment responses so a retried turn gets the original answer instead of booking
+ * again. Entries live in two generations of a {@link ConcurrentHashMap}. A lookup reads both without
+ * locking. When the current generation is older than the time to live, or holds half of {@code
+ * maxEntries}, it becomes the previous one and the old previous one is dropped whole. That bounds the
+ * cache at {@code maxEntries} without scanning it; under heavy traffic an entry can be dropped before its
+ * time to live. A retry that arrives while the original is still running waits for its response.
+ */
+public final class FulfillmentCache {
+
+	private final int maxEntriesPerGeneration;
+	private final long timeToLiveNanos;
+	private volatile Generation current;
+	private volatile Generation previous;
+
+	public FulfillmentCache(final int maxEntries, final Duration timeToLive) {
+		if (maxEntries < 2) {
+			throw new IllegalArgumentException("maxEntries must be at least 2, was " + maxEntries);
+		}
+		this.maxEntriesPerGeneration = maxEntries / 2;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		long now = System.nanoTime();
+		this.current = new Generation(now, maxEntriesPerGeneration);
+		this.previous = new Generation(now, 0);
+	}
+
+	/**
+	 * Returns the response already given for {@code key}, or runs {@code fulfillment} and remembers its
+	 * response. A fulfillment that throws is not remembered.
+	 */
+	public LexResponse fulfill(
+			final FulfillmentKey key,
+			final Supplier<LexResponse> fulfillment,
+			final InvocationMetrics metrics) {
+		long now = System.nanoTime();
+		Entry existing = find(key, now);
+		if (existing != null) {
+			metrics.setDuplicateFulfillment(true);
+			return join(existing);
+		}
+
+		Generation generation = currentGeneration(now);
+		Entry fresh = new Entry(now);
+		existing = generation.entries.putIfAbsent(key, fresh);
+		if (existing != null) {
+			metrics.setDuplicateFulfillment(true);
+			return join(existing);
+		}
+
+		metrics.setDuplicateFulfillment(false);
+		LexResponse response;
+		try {
+			response = fulfillment.get();
+		} catch (RuntimeException e) {
+			generation.entries.remove(key, fresh);
+			fresh.response.completeExceptionally(e);
+			throw e;
+		}
+		fresh.response.complete(response);
+		return response;
+	}
+
+	/** How many turns are remembered right now, expired ones included until their generation is dropped. */
+	public int size() {
+		return current.entries.size() + previous.entries.size();
+	}
+
+	private Entry find(final FulfillmentKey key, final long now) {
+		Entry entry = current.entries.get(key);
+		if (entry == null) {
+			entry = previous.entries.get(key);
+		}
+		return entry != null && now - entry.storedAt < timeToLiveNanos ? entry : null;
+	}
+
+	private Generation currentGeneration(final long now) {
+		Generation generation = current;
+		if (now - generation.startedAt < timeToLiveNanos
+				&& generation.entries.size() < maxEntriesPerGeneration) {
+			return generation;
+		}
+		synchronized (this) {
+			if (current == generation) {
+				previous = generation;
+				current = new Generation(now, maxEntriesPerGeneration);
+			}
+			return current;
+		}
+	}
+
+	private static LexResponse join(final Entry entry) {
+		try {
+			return entry.response.join();
+		} catch (CompletionException e) {
+			// Waiters share the original attempt's failure; the next retry runs afresh.
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static final class Generation {
+		private final long startedAt;
+		private final ConcurrentHashMap<FulfillmentKey, Entry> entries;
+
+		private Generation(final long startedAt, final int expectedEntries) {
+			this.startedAt = startedAt;
+			this.entries = new ConcurrentHashMap<>(Math.min(expectedEntries, 1024));
+		}
+	}
+
+	private static final class Entry {
+		private final long storedAt;
+		private final CompletableFuture<LexResponse> response = new CompletableFuture<>();
+
+		private Entry(final long storedAt) {
+			this.storedAt = storedAt;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.github.cairoatlas.idempotency;
+
+import com.github.cairoatlas.objects.request.LexRequest;
+
+import java.util.Map;
+
+/**
+ * Identifies one fulfillment turn: the tenant, the Lex user, and a 64-bit fingerprint of the intent, its
+ * slot values and the session attributes the turn arrived with. The session attributes change with every
+ * turn the bot answers, so they serve as the turn marker; a retry of the same turn carries the same ones.
+ * Map fingerprints do not depend on iteration order.
+ */
+public final class FulfillmentKey {
+
+	private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+	private final String tenantId;
+	private final String userId;
+	private final long fingerprint;
+
+	private FulfillmentKey(final String tenantId, final String userId, final long fingerprint) {
+		this.tenantId = tenantId;
+		this.userId = userId;
+		this.fingerprint = fingerprint;
+	}
+
+	/** Keys {@code request} before any handler has touched its slot or session maps. */
+	public static FulfillmentKey of(final String tenantId, final LexRequest request) {
+		long fingerprint = mix(hash(request.getCurrentIntent().getName()));
+		fingerprint = fingerprint * 31 + hash(request.getCurrentIntent().getSlots());
+		fingerprint = fingerprint * 31 + hash(request.getSessionAttributes());
+		return new FulfillmentKey(tenantId, request.getUserId(), mix(fingerprint));
+	}
+
+	private static long hash(final Map<String, String> map) {
+		if (map == null) {
+			return NULL_HASH;
+		}
+		long sum = 0;
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			sum += mix(hash(entry.getKey()) * 31 + hash(entry.getValue()));
+		}
+		return sum;
+	}
+
+	// 64-bit FNV-1a over the UTF-16 code units.
+	private static long hash(final String value) {
+		if (value == null) {
+			return NULL_HASH;
+		}
+		long hash = 0xCBF29CE484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001B3L;
+		}
+		return hash;
+	}
+
+	// The MurmurHash3 finalizer, so sums of entry hashes stay well spread.
+	private static long mix(final long value) {
+		long h = value;
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (!(o instanceof FulfillmentKey)) {
+			return false;
+		}
+		FulfillmentKey other = (FulfillmentKey) o;
+		return fingerprint == other.fingerprint
+				&& tenantId.equals(other.tenantId)
+				&& (userId == null ? other.userId == null : userId.equals(other.userId));
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(fingerprint);
+	}
+}
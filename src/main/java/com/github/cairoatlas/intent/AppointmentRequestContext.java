@@ -0,0 +1,133 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.availability.HalfHourSlots;
+import com.github.cairoatlas.catalog.AppointmentCatalog;
+import com.github.cairoatlas.catalog.AppointmentType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What one MakeAppointment turn asked for, resolved once up front: the appointment type looked up in the
+ * catalog, the date and time parsed, the time's half-hour slot, and the booking state decoded from the
+ * session. Every later stage reads from here instead of going back to the raw slots.
+ *
+ * <p>Slot text that was left empty is null. A filled slot that did not parse keeps its text with a null
+ * value, which is what validation reports on.
+ */
+final class AppointmentRequestContext {
+
+	private final String typeText;
+	private final AppointmentType type;
+	private final String dateText;
+	private final LocalDate date;
+	private final String timeText;
+	private final LocalTime time;
+	private final int timeSlot;
+	private final Map<LocalDate, DayAvailability> bookingMap;
+	private final LocalDate latestBookedDay;
+
+	private AppointmentRequestContext(
+			final String typeText,
+			final AppointmentType type,
+			final String dateText,
+			final LocalDate date,
+			final String timeText,
+			final LocalTime time,
+			final Map<LocalDate, DayAvailability> bookingMap) {
+		this.typeText = typeText;
+		this.type = type;
+		this.dateText = dateText;
+		this.date = date;
+		this.timeText = timeText;
+		this.time = time;
+		this.timeSlot = time == null ? -1 : time.getHour() * 2 + time.getMinute() / HalfHourSlots.SLOT_MINUTES;
+		// A copy, in the same least recently used first order, so later changes to the caller's map do not
+		// show through.
+		this.bookingMap = Collections.unmodifiableMap(new LinkedHashMap<>(bookingMap));
+		LocalDate latest = null;
+		for (LocalDate day : this.bookingMap.keySet()) {
+			latest = day;
+		}
+		this.latestBookedDay = latest;
+	}
+
+	static AppointmentRequestContext of(
+			final IntentSlots slots,
+			final AppointmentCatalog catalog,
+			final Map<LocalDate, DayAvailability> bookingMap) {
+		String typeText = slots.text(MakeAppointmentIntentHandler.APPOINTMENT_TYPE_SLOT);
+		return new AppointmentRequestContext(
+				typeText,
+				typeText == null ? null : catalog.find(typeText),
+				slots.text(MakeAppointmentIntentHandler.DATE_SLOT),
+				slots.date(MakeAppointmentIntentHandler.DATE_SLOT).orElse(null),
+				slots.text(MakeAppointmentIntentHandler.TIME_SLOT),
+				slots.time(MakeAppointmentIntentHandler.TIME_SLOT).orElse(null),
+				bookingMap);
+	}
+
+	String getTypeText() {
+		return typeText;
+	}
+
+	/** The catalog entry for the type slot, or null when it is empty or names no type. */
+	AppointmentType getType() {
+		return type;
+	}
+
+	String getDateText() {
+		return dateText;
+	}
+
+	LocalDate getDate() {
+		return date;
+	}
+
+	String getTimeText() {
+		return timeText;
+	}
+
+	LocalTime getTime() {
+		return time;
+	}
+
+	/** The half-hour slot the time falls in, or -1 without a time. */
+	int getTimeSlot() {
+		return timeSlot;
+	}
+
+	/** The slot an appointment at the time would start in, or -1 without a time on the half-hour grid. */
+	int getStartSlot() {
+		return time != null && time.getMinute() % HalfHourSlots.SLOT_MINUTES == 0 ? timeSlot : -1;
+	}
+
+	Map<LocalDate, DayAvailability> getBookingMap() {
+		return bookingMap;
+	}
+
+	/** The availability the session last saw for {@code day}, or null when it has none or no day is given. */
+	DayAvailability getBookedDay(final LocalDate day) {
+		return day == null ? null : bookingMap.get(day);
+	}
+
+	/** Whether the session already holds {@code availability} for {@code day} as its most recently used day. */
+	boolean isLatestBookedDay(final LocalDate day, final DayAvailability availability) {
+		return day.equals(latestBookedDay) && availability.equals(bookingMap.get(day));
+	}
+
+	/**
+	 * The session's booking state with {@code day} set to {@code availability} and moved to the most
+	 * recently used end, ready to encode.
+	 */
+	Map<LocalDate, DayAvailability> withBookedDay(final LocalDate day, final DayAvailability availability) {
+		Map<LocalDate, DayAvailability> updated = new LinkedHashMap<>(bookingMap);
+		updated.remove(day);
+		updated.put(day, availability);
+		return updated;
+	}
+}
@@ -0,0 +1,115 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.date.DateRecognizer;
+import com.github.cairoatlas.objects.ValidationResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Answers many {@link BookabilityQuery} questions at once against one MakeAppointment handler, with the
+ * validation and availability checks a Lex turn would run, and without booking anything.
+ *
+ * <p>Queries are validated in parallel, then grouped by date so each day's availability is looked up once,
+ * and the days are checked in parallel on the given pool. A query is bookable when its result is
+ * {@link ValidationResult#VALID}; otherwise the result names the slot that would be asked for again and
+ * the message the dialog would give.
+ */
+public final class BookabilityEvaluator {
+
+	private static final int QUERIES_PER_TASK = 256;
+
+	private final MakeAppointmentIntentHandler handler;
+	private final DateRecognizer dateRecognizer;
+	private final ForkJoinPool pool;
+
+	public BookabilityEvaluator(
+			final MakeAppointmentIntentHandler handler,
+			final DateRecognizer dateRecognizer,
+			final ForkJoinPool pool) {
+		this.handler = handler;
+		this.dateRecognizer = dateRecognizer;
+		this.pool = pool;
+	}
+
+	/** Returns one result per query, in the order the queries came. */
+	public List<ValidationResult> evaluate(final Stream<BookabilityQuery> queries) {
+		List<BookabilityQuery> input = queries.collect(Collectors.toList());
+		ValidationResult[] results = new ValidationResult[input.size()];
+		AppointmentRequestContext[] contexts = new AppointmentRequestContext[input.size()];
+
+		pool.invoke(new Fanout(0, input.size(), QUERIES_PER_TASK, i -> {
+			AppointmentRequestContext context = handler.contextOf(slotsOf(input.get(i)));
+			ValidationResult result = handler.validateBookAppointment(context);
+			if (result.isValid()) {
+				result = handler.requireTypeAndDate(context);
+			}
+			if (result.isValid()) {
+				contexts[i] = context;
+			} else {
+				results[i] = result;
+			}
+		}));
+
+		Map<LocalDate, List<Integer>> byDate = new HashMap<>();
+		for (int i = 0; i < contexts.length; i++) {
+			if (contexts[i] != null) {
+				byDate.computeIfAbsent(contexts[i].getDate(), date -> new ArrayList<>()).add(i);
+			}
+		}
+		List<List<Integer>> days = new ArrayList<>(byDate.values());
+		pool.invoke(new Fanout(0, days.size(), 1, day -> {
+			List<Integer> indices = days.get(day);
+			DayAvailability availabilities = handler.getAvailability(contexts[indices.get(0)].getDate());
+			for (int i : indices) {
+				results[i] = handler.checkAvailability(contexts[i], availabilities);
+			}
+		}));
+		return Arrays.asList(results);
+	}
+
+	private IntentSlots slotsOf(final BookabilityQuery query) {
+		Map<String, String> slots = new HashMap<>(4);
+		slots.put(MakeAppointmentIntentHandler.APPOINTMENT_TYPE_SLOT, query.getAppointmentType());
+		slots.put(MakeAppointmentIntentHandler.DATE_SLOT, query.getDate());
+		slots.put(MakeAppointmentIntentHandler.TIME_SLOT, query.getTime());
+		return new IntentSlots(slots, null, dateRecognizer);
+	}
+
+	/** Runs {@code action} for every index in [from, to), splitting until a task has at most {@code grain}. */
+	private static final class Fanout extends RecursiveAction {
+		private final int from;
+		private final int to;
+		private final int grain;
+		private final IntConsumer action;
+
+		private Fanout(final int from, final int to, final int grain, final IntConsumer action) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				for (int i = from; i < to; i++) {
+					action.accept(i);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new Fanout(from, middle, grain, action), new Fanout(middle, to, grain, action));
+		}
+	}
+}
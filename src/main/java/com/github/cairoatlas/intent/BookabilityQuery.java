@@ -0,0 +1,31 @@
+package com.github.cairoatlas.intent;
+
+/**
+ * One "could this be booked?" question for {@link BookabilityEvaluator}. Each part takes the text the
+ * matching MakeAppointment slot would hold, so "cleaning", "2026-10-21" and "16:00" all read as they do in a
+ * Lex turn. A null part is an unfilled slot.
+ */
+public final class BookabilityQuery {
+
+	private final String appointmentType;
+	private final String date;
+	private final String time;
+
+	public BookabilityQuery(final String appointmentType, final String date, final String time) {
+		this.appointmentType = appointmentType;
+		this.date = date;
+		this.time = time;
+	}
+
+	public String getAppointmentType() {
+		return appointmentType;
+	}
+
+	public String getDate() {
+		return date;
+	}
+
+	public String getTime() {
+		return time;
+	}
+}
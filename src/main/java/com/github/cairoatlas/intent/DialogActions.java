@@ -0,0 +1,54 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.objects.response.DialogAction;
+import com.github.cairoatlas.objects.response.DialogActionMessage;
+import com.github.cairoatlas.objects.response.LexResponse;
+import com.github.cairoatlas.objects.response.ResponseCard;
+
+import java.util.Map;
+
+/** The Lex V1 dialog actions shared by every {@link IntentHandler}. */
+public final class DialogActions {
+
+	private DialogActions() {
+	}
+
+	public static LexResponse elicitSlot(
+			final Map<String, String> outputSessionAttributes,
+			final String intentName,
+			final Map<String, String> slots,
+			final String slotToElicit,
+			final DialogActionMessage message,
+			final ResponseCard responseCard) {
+		return new LexResponse(
+				outputSessionAttributes,
+				DialogAction.elicitSlot(intentName, slots, slotToElicit, message, responseCard));
+	}
+
+	public static LexResponse confirmIntent(
+			final Map<String, String> outputSessionAttributes,
+			final String intentName,
+			final Map<String, String> slots,
+			final DialogActionMessage message,
+			final ResponseCard responseCard) {
+		return new LexResponse(
+				outputSessionAttributes, DialogAction.confirmIntent(intentName, slots, message, responseCard));
+	}
+
+	/** @param fulfillmentState {@link DialogAction#FULFILLED} or {@link DialogAction#FAILED} */
+	public static LexResponse close(
+			final Map<String, String> outputSessionAttributes,
+			final String fulfillmentState,
+			final DialogActionMessage message) {
+		return new LexResponse(outputSessionAttributes, DialogAction.close(fulfillmentState, message));
+	}
+
+	public static LexResponse delegate(
+			final Map<String, String> outputSessionAttributes, final Map<String, String> slots) {
+		return new LexResponse(outputSessionAttributes, DialogAction.delegate(slots));
+	}
+
+	public static DialogActionMessage message(final String content) {
+		return new DialogActionMessage(content);
+	}
+}
@@ -0,0 +1,16 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.metrics.InvocationMetrics;
+import com.github.cairoatlas.objects.response.LexResponse;
+
+/**
+ * Serves every turn of one Lex intent. Implementations are created once at init time, registered in an
+ * {@link IntentRegistry} and shared by all invocations, so they must not keep per-request state.
+ */
+public interface IntentHandler {
+
+	/** The Lex intent name this handler is registered under, e.g. "MakeAppointment". */
+	String intentName();
+
+	LexResponse handle(IntentRequest request, InvocationMetrics metrics);
+}
@@ -0,0 +1,34 @@
+package com.github.cairoatlas.intent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable lookup from intent name to its {@link IntentHandler}, built once when the Lambda handler
+ * class initializes.
+ */
+public final class IntentRegistry {
+
+	private final Map<String, IntentHandler> handlers;
+
+	private IntentRegistry(final Map<String, IntentHandler> handlers) {
+		this.handlers = handlers;
+	}
+
+	public static IntentRegistry of(final IntentHandler... handlers) {
+		Map<String, IntentHandler> byName = new HashMap<>(handlers.length * 2);
+		for (IntentHandler handler : handlers) {
+			if (byName.put(handler.intentName(), handler) != null) {
+				throw new IllegalArgumentException(
+						"More than one handler registered for intent " + handler.intentName());
+			}
+		}
+		return new IntentRegistry(Collections.unmodifiableMap(byName));
+	}
+
+	/** Returns the handler for the intent, or null when none is registered. */
+	public IntentHandler find(final String intentName) {
+		return intentName == null ? null : handlers.get(intentName);
+	}
+}
@@ -0,0 +1,52 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.date.DateRecognizer;
+import com.github.cairoatlas.objects.request.CurrentIntent;
+import com.github.cairoatlas.objects.request.LexRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One Lex turn as an {@link IntentHandler} sees it: the raw request plus typed slots and a session
+ * attribute map that is never null.
+ */
+public final class IntentRequest {
+
+	private final LexRequest request;
+	private final IntentSlots slots;
+	private final Map<String, String> sessionAttributes;
+
+	public IntentRequest(final LexRequest request, final DateRecognizer dateRecognizer) {
+		this.request = request;
+		CurrentIntent intent = request.getCurrentIntent();
+		this.slots = new IntentSlots(intent.getSlots(), intent.getSlotDetails(), dateRecognizer);
+		Map<String, String> attributes = request.getSessionAttributes();
+		this.sessionAttributes = attributes == null ? new HashMap<>() : attributes;
+	}
+
+	public LexRequest getRequest() {
+		return request;
+	}
+
+	public String getIntentName() {
+		return request.getCurrentIntent().getName();
+	}
+
+	public String getInvocationSource() {
+		return request.getInvocationSource();
+	}
+
+	public String getConfirmationStatus() {
+		return request.getCurrentIntent().getConfirmationStatus();
+	}
+
+	public IntentSlots getSlots() {
+		return slots;
+	}
+
+	/** The session attributes to send back; handlers update this map in place. */
+	public Map<String, String> getSessionAttributes() {
+		return sessionAttributes;
+	}
+}
@@ -0,0 +1,179 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.date.DateRecognizer;
+import com.github.cairoatlas.objects.request.Resolutions;
+import com.github.cairoatlas.objects.request.SlotDetail;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Typed view over the slots of {@code CurrentIntent}. Each slot is parsed at most once per request, no
+ * matter how many times a handler asks for it. Writes go through to the underlying map, which is the one
+ * echoed back to Lex in the response.
+ *
+ * <p>When Lex resolved a slot to a single value in {@code slotDetails}, that value is read first with a
+ * fixed-width ISO date or {@code HH:mm} parse; the slot text only goes through the full parsers when there
+ * is no usable resolution.
+ */
+public final class IntentSlots {
+
+	private final Map<String, String> values;
+	private final Map<String, SlotDetail> details;
+	private final DateRecognizer dateRecognizer;
+	private Map<String, Optional<LocalDate>> dates;
+	private Map<String, Optional<LocalTime>> times;
+
+	IntentSlots(
+			final Map<String, String> values,
+			final Map<String, SlotDetail> details,
+			final DateRecognizer dateRecognizer) {
+		this.values = values == null ? new HashMap<>() : values;
+		this.details = details;
+		this.dateRecognizer = dateRecognizer;
+	}
+
+	/** The raw slot map, for echoing back in a dialog action. */
+	public Map<String, String> asMap() {
+		return values;
+	}
+
+	public boolean isFilled(final String slot) {
+		String value = values.get(slot);
+		return value != null && !value.isEmpty();
+	}
+
+	/** Returns the slot's text, or null when it is not filled. */
+	public String text(final String slot) {
+		return isFilled(slot) ? values.get(slot) : null;
+	}
+
+	/** Returns the slot as a date, or empty when it is unfilled or not a date the bot recognizes. */
+	public Optional<LocalDate> date(final String slot) {
+		if (dates == null) {
+			dates = new HashMap<>(4);
+		}
+		Optional<LocalDate> date = dates.get(slot);
+		if (date == null) {
+			date = isFilled(slot) ? parseDate(slot) : Optional.empty();
+			dates.put(slot, date);
+		}
+		return date;
+	}
+
+	/**
+	 * Returns an "HH:mm" slot, or one Lex resolved to "HH:mm", as a time; empty when it is unfilled or has
+	 * any other shape.
+	 */
+	public Optional<LocalTime> time(final String slot) {
+		if (times == null) {
+			times = new HashMap<>(4);
+		}
+		Optional<LocalTime> time = times.get(slot);
+		if (time == null) {
+			time = isFilled(slot) ? parseTime(slot) : Optional.empty();
+			times.put(slot, time);
+		}
+		return time;
+	}
+
+	/** Clears a slot so Lex elicits it again; the cached parse is dropped with it. */
+	public void clear(final String slot) {
+		put(slot, null);
+	}
+
+	public void put(final String slot, final String value) {
+		values.put(slot, value);
+		if (dates != null) {
+			dates.remove(slot);
+		}
+		if (times != null) {
+			times.remove(slot);
+		}
+	}
+
+	private Optional<LocalDate> parseDate(final String slot) {
+		String resolved = resolution(slot);
+		if (resolved != null) {
+			Optional<LocalDate> date = parseIsoDate(resolved);
+			if (date.isPresent()) {
+				return date;
+			}
+		}
+		return dateRecognizer.recognize(values.get(slot));
+	}
+
+	private Optional<LocalTime> parseTime(final String slot) {
+		String resolved = resolution(slot);
+		if (resolved != null) {
+			Optional<LocalTime> time = parseTime24(resolved);
+			if (time.isPresent()) {
+				return time;
+			}
+		}
+		return parseTime24(values.get(slot));
+	}
+
+	/**
+	 * Returns the one value Lex resolved the slot to, or null when there is none, the input was ambiguous,
+	 * or the slot no longer holds what Lex filled it with because a handler has since rewritten it.
+	 */
+	private String resolution(final String slot) {
+		SlotDetail detail = details == null ? null : details.get(slot);
+		List<Resolutions> resolutions = detail == null ? null : detail.getResolutions();
+		if (resolutions == null || resolutions.size() != 1 || resolutions.get(0) == null) {
+			return null;
+		}
+		String resolved = resolutions.get(0).getValue();
+		String text = values.get(slot);
+		if (resolved == null || !(resolved.equals(text) || text.equals(detail.getOriginalValue()))) {
+			return null;
+		}
+		return resolved;
+	}
+
+	/** Parses a strict, in-range "yyyy-MM-dd"; anything else is left to the date recognizer. */
+	private static Optional<LocalDate> parseIsoDate(final String text) {
+		if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+			return Optional.empty();
+		}
+		int century = twoDigits(text, 0);
+		int yearOfCentury = twoDigits(text, 2);
+		int month = twoDigits(text, 5);
+		int day = twoDigits(text, 8);
+		if (century < 0 || yearOfCentury < 0 || month < 1 || month > 12 || day < 1) {
+			return Optional.empty();
+		}
+		int year = century * 100 + yearOfCentury;
+		if (day > YearMonth.of(year, month).lengthOfMonth()) {
+			return Optional.empty();
+		}
+		return Optional.of(LocalDate.of(year, month, day));
+	}
+
+	private static Optional<LocalTime> parseTime24(final String text) {
+		if (text.length() != 5 || text.charAt(2) != ':') {
+			return Optional.empty();
+		}
+		int hour = twoDigits(text, 0);
+		int minute = twoDigits(text, 3);
+		if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+			return Optional.empty();
+		}
+		return Optional.of(LocalTime.of(hour, minute));
+	}
+
+	private static int twoDigits(final String text, final int from) {
+		char tens = text.charAt(from);
+		char units = text.charAt(from + 1);
+		if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+			return -1;
+		}
+		return (tens - '0') * 10 + (units - '0');
+	}
+}
@@ -0,0 +1,216 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.catalog.AppointmentCatalog;
+import com.github.cairoatlas.catalog.AppointmentType;
+import com.github.cairoatlas.objects.response.GenericAttachment;
+import com.github.cairoatlas.objects.response.GenericAttachmentButton;
+import com.github.cairoatlas.objects.response.ResponseCard;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Response cards for MakeAppointment, built once and shared by every invocation. The appointment type
+ * buttons come from the catalog and, like the yes/no buttons, never change. Date buttons are keyed by the
+ * days offered, counted from today, and are dropped when the day changes. Time buttons are keyed by the
+ * start slots offered, which already reflect the day's free slots, its opening hours and the appointment
+ * length. Cards are immutable, so the same instance goes into every response that asks for it.
+ */
+final class MakeAppointmentCards {
+
+	private static final int MAX_CARDS_PER_SET = 32;
+
+	// Lex renders at most ten attachments of five buttons each.
+	private static final int MAX_BUTTONS_PER_ATTACHMENT = 5;
+
+	private static final int MAX_ATTACHMENTS = 10;
+
+	private static final int MAX_TIME_SETS = 4096;
+
+	private static final int MAX_DATE_SETS = 1024;
+
+	private static final int DATE_OFFSET_BITS = 12;
+
+	// Indexed by DayOfWeek.ordinal(); spelled out so no locale data is loaded to render a day.
+	private static final String[] DAY_NAMES = {
+			"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"
+	};
+
+	private static final String[] DAY_ABBREVIATIONS = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+
+	private static final CardSet YES_NO = new CardSet(Arrays.asList(
+			new GenericAttachmentButton("yes", "yes"),
+			new GenericAttachmentButton("no", "no")));
+
+	private static final CardSet NO_OPTIONS = new CardSet(Collections.<GenericAttachmentButton>emptyList());
+
+	private final ZoneId zoneId;
+	private final SlotLabels labels;
+	private final CardSet appointmentTypes;
+	private volatile DateCardSets dates;
+	private final ConcurrentHashMap<Long, CardSet> times = new ConcurrentHashMap<>();
+
+	MakeAppointmentCards(final ZoneId zoneId, final AppointmentCatalog catalog, final SlotLabels labels) {
+		this.zoneId = zoneId;
+		this.labels = labels;
+		List<GenericAttachmentButton> buttons = new ArrayList<>();
+		for (AppointmentType type : catalog.getTypes()) {
+			if (buttons.size() == MAX_BUTTONS_PER_ATTACHMENT * MAX_ATTACHMENTS) {
+				break;
+			}
+			buttons.add(new GenericAttachmentButton(type.toString(), type.getName()));
+		}
+		this.appointmentTypes = new CardSet(buttons);
+	}
+
+	/** The catalog's types in configured order, five to an attachment. */
+	ResponseCard appointmentTypes(final String title, final String subtitle) {
+		return appointmentTypes.card(title, subtitle);
+	}
+
+	ResponseCard yesNo(final String title, final String subtitle) {
+		return YES_NO.card(title, subtitle);
+	}
+
+	ResponseCard noOptions(final String title, final String subtitle) {
+		return NO_OPTIONS.card(title, subtitle);
+	}
+
+	/** A button for each of {@code days}, which must be in the future. */
+	ResponseCard dates(final String title, final String subtitle, final List<LocalDate> days) {
+		LocalDate today = LocalDate.now(zoneId);
+		DateCardSets current = dates;
+		if (current == null || !current.day.equals(today)) {
+			current = new DateCardSets(today);
+			dates = current;
+		}
+
+		// Up to five offsets from today of twelve bits each identify the buttons in one long.
+		long key = 0;
+		for (LocalDate day : days) {
+			long offset = day.toEpochDay() - today.toEpochDay();
+			if (offset <= 0 || offset >= 1L << DATE_OFFSET_BITS || days.size() > 5) {
+				return new CardSet(dateButtons(days)).card(title, subtitle);
+			}
+			key = key << DATE_OFFSET_BITS | offset;
+		}
+		Long boxedKey = key;
+		CardSet set = current.sets.get(boxedKey);
+		if (set == null) {
+			if (current.sets.size() >= MAX_DATE_SETS) {
+				current.sets.clear();
+			}
+			set = new CardSet(dateButtons(days));
+			CardSet raced = current.sets.putIfAbsent(boxedKey, set);
+			if (raced != null) {
+				set = raced;
+			}
+		}
+		return set.card(title, subtitle);
+	}
+
+	/** The first five of {@code startSlots}, the slots an appointment can start at on some day. */
+	ResponseCard times(final String title, final String subtitle, final long startSlots) {
+		if (startSlots == 0L) {
+			return NO_OPTIONS.card(title, subtitle);
+		}
+		Long key = startSlots;
+		CardSet set = times.get(key);
+		if (set == null) {
+			if (times.size() >= MAX_TIME_SETS) {
+				times.clear();
+			}
+			set = new CardSet(timeButtons(startSlots));
+			CardSet raced = times.putIfAbsent(key, set);
+			if (raced != null) {
+				set = raced;
+			}
+		}
+		return set.card(title, subtitle);
+	}
+
+	private List<GenericAttachmentButton> timeButtons(final long startSlots) {
+		List<GenericAttachmentButton> buttons = new ArrayList<>(5);
+		for (long remaining = startSlots; remaining != 0 && buttons.size() < 5; remaining &= remaining - 1) {
+			String time = labels.display(Long.numberOfTrailingZeros(remaining));
+			buttons.add(new GenericAttachmentButton(time, time));
+		}
+		return buttons;
+	}
+
+	/** A fixed button list and the cards built around it, keyed by title and then subtitle. */
+	private static class CardSet {
+		private final List<GenericAttachmentButton> buttons;
+		private final ConcurrentHashMap<String, ConcurrentHashMap<String, ResponseCard>> cards =
+				new ConcurrentHashMap<>(8);
+
+		CardSet(final List<GenericAttachmentButton> buttons) {
+			this.buttons = Collections.unmodifiableList(buttons);
+		}
+
+		ResponseCard card(final String title, final String subtitle) {
+			ConcurrentHashMap<String, ResponseCard> bySubtitle = cards.get(title);
+			if (bySubtitle == null) {
+				bySubtitle = new ConcurrentHashMap<>(8);
+				ConcurrentHashMap<String, ResponseCard> raced = cards.putIfAbsent(title, bySubtitle);
+				if (raced != null) {
+					bySubtitle = raced;
+				}
+			}
+			ResponseCard card = bySubtitle.get(subtitle);
+			if (card == null) {
+				card = build(title, subtitle);
+				// Subtitles can echo user input, so past a handful they are built per call instead.
+				if (bySubtitle.size() < MAX_CARDS_PER_SET) {
+					ResponseCard raced = bySubtitle.putIfAbsent(subtitle, card);
+					if (raced != null) {
+						card = raced;
+					}
+				}
+			}
+			return card;
+		}
+
+		private ResponseCard build(final String title, final String subtitle) {
+			if (buttons.size() <= MAX_BUTTONS_PER_ATTACHMENT) {
+				GenericAttachment attachment = new GenericAttachment(title, subtitle, buttons);
+				return new ResponseCard(1, ResponseCard.GENERIC, Collections.singletonList(attachment));
+			}
+			List<GenericAttachment> attachments = new ArrayList<>();
+			for (int from = 0; from < buttons.size(); from += MAX_BUTTONS_PER_ATTACHMENT) {
+				attachments.add(new GenericAttachment(
+						title,
+						subtitle,
+						buttons.subList(from, Math.min(from + MAX_BUTTONS_PER_ATTACHMENT, buttons.size()))));
+			}
+			return new ResponseCard(1, ResponseCard.GENERIC, attachments);
+		}
+	}
+
+	private static List<GenericAttachmentButton> dateButtons(final List<LocalDate> days) {
+		List<GenericAttachmentButton> buttons = new ArrayList<>(days.size());
+		for (LocalDate date : days) {
+			int dayOfWeek = date.getDayOfWeek().ordinal();
+			buttons.add(new GenericAttachmentButton(
+					date.getMonthValue() + "-" + date.getDayOfMonth()
+							+ " " + DAY_ABBREVIATIONS[dayOfWeek] + " (" + DAY_NAMES[dayOfWeek] + ")",
+					date.getYear() + "-" + date.getMonthValue() + "-" + date.getDayOfMonth()));
+		}
+		return buttons;
+	}
+
+	/** The date button lists built so far today. */
+	private static final class DateCardSets {
+		private final LocalDate day;
+		private final ConcurrentHashMap<Long, CardSet> sets = new ConcurrentHashMap<>();
+
+		DateCardSets(final LocalDate today) {
+			this.day = today;
+		}
+	}
+}
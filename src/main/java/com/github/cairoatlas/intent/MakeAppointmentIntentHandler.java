@@ -0,0 +1,523 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.availability.AvailabilityIndex;
+import com.github.cairoatlas.availability.AvailabilityProvider;
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.availability.HalfHourSlots;
+import com.github.cairoatlas.calendar.BusinessCalendar;
+import com.github.cairoatlas.catalog.AppointmentCatalog;
+import com.github.cairoatlas.catalog.AppointmentType;
+import com.github.cairoatlas.metrics.InvocationMetrics;
+import com.github.cairoatlas.metrics.Stage;
+import com.github.cairoatlas.objects.ValidationResult;
+import com.github.cairoatlas.objects.response.DialogAction;
+import com.github.cairoatlas.objects.response.LexResponse;
+import com.github.cairoatlas.objects.response.ResponseCard;
+import com.github.cairoatlas.session.BookingMapBudget;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.github.cairoatlas.intent.DialogActions.close;
+import static com.github.cairoatlas.intent.DialogActions.confirmIntent;
+import static com.github.cairoatlas.intent.DialogActions.delegate;
+import static com.github.cairoatlas.intent.DialogActions.elicitSlot;
+import static com.github.cairoatlas.intent.DialogActions.message;
+
+/**
+ * Books dental appointments: elicits the type, date and time, offers what the availability store has
+ * free, and reserves the slot at fulfillment.
+ */
+public class MakeAppointmentIntentHandler implements IntentHandler {
+
+	public static final String INTENT_NAME = "MakeAppointment";
+
+	static final String APPOINTMENT_TYPE_SLOT = "AppointmentType";
+	static final String DATE_SLOT = "Date";
+	static final String TIME_SLOT = "Time";
+
+	private final ZoneId zoneId;
+	private final BusinessCalendar calendar;
+	private final AppointmentCatalog catalog;
+	private final MakeAppointmentPrompts prompts;
+	private final String outsideHoursMessage;
+	private final String unknownTypeMessage;
+	private final AvailabilityIndex availabilityProvider;
+	private final BookingMapBudget bookingMapBudget;
+	private final MakeAppointmentCards cards;
+
+	/**
+	 * @param horizonDays how far ahead, counting today, dates are offered
+	 */
+	public MakeAppointmentIntentHandler(
+			final BusinessCalendar calendar,
+			final AppointmentCatalog catalog,
+			final MakeAppointmentPrompts prompts,
+			final AvailabilityProvider availabilityProvider,
+			final int horizonDays,
+			final BookingMapBudget bookingMapBudget) {
+		this.zoneId = calendar.getZoneId();
+		this.calendar = calendar;
+		this.catalog = catalog;
+		this.prompts = prompts;
+		String hours = calendar.getHoursDescription();
+		this.outsideHoursMessage = prompts.timeOutsideHours.render(hours.endsWith(".") ? hours : hours + ".");
+		this.unknownTypeMessage = prompts.typeUnknown.render(catalog.getDescription());
+		this.availabilityProvider =
+				new AvailabilityIndex(availabilityProvider, zoneId, horizonDays, calendar::startSlots);
+		this.bookingMapBudget = bookingMapBudget;
+		this.cards = new MakeAppointmentCards(zoneId, catalog, prompts.labels);
+	}
+
+	@Override
+	public String intentName() {
+		return INTENT_NAME;
+	}
+
+	private long getAvailabilitiesForType(
+			final AppointmentType type, final LocalDate date, final DayAvailability availabilities) {
+		return availabilities.freeRunStarts(type.getSlotCount()) & calendar.startSlots(date);
+	}
+
+	ValidationResult validateBookAppointment(final AppointmentRequestContext context) {
+		if (context.getTypeText() != null && context.getType() == null) {
+			return ValidationResult.invalid(APPOINTMENT_TYPE_SLOT, unknownTypeMessage);
+		}
+
+		if (context.getTimeText() != null) {
+			if (context.getTime() == null) {
+				return ValidationResult.invalid(TIME_SLOT, prompts.timeUnrecognized.render());
+			}
+
+			// Judge the time against the requested day's hours when that day opens at all.
+			LocalDate day = context.getDate();
+			if (day != null && !calendar.isWorkingWeekday(day.getDayOfWeek())) {
+				day = null;
+			}
+			long slot = 1L << context.getTimeSlot();
+			if ((calendar.openSlots(day) & slot) == 0) {
+				return ValidationResult.invalid(TIME_SLOT, outsideHoursMessage);
+			}
+
+			if (context.getStartSlot() < 0 || (calendar.weekdayStartSlots(day) & slot) == 0) {
+				return ValidationResult.invalid(TIME_SLOT, prompts.timeNotOnStart.render());
+			}
+		}
+
+		if (context.getDateText() != null) {
+			LocalDate date = context.getDate();
+			if (date == null) {
+				return ValidationResult.invalid(DATE_SLOT, prompts.dateUnrecognized.render());
+			} else if (date.isBefore(LocalDate.now(zoneId))) {
+				return ValidationResult.invalid(DATE_SLOT, prompts.datePast.render());
+			} else if (!calendar.isOpen(date)) {
+				DayOfWeek dayOfWeek = date.getDayOfWeek();
+				if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+					return ValidationResult.invalid(DATE_SLOT, prompts.dateWeekend.render());
+				}
+				return ValidationResult.invalid(DATE_SLOT, prompts.dateClosed.render());
+			}
+		}
+
+		return ValidationResult.VALID;
+	}
+
+	/** Reads a request the way {@link #handle} does, with no booking state behind it. */
+	AppointmentRequestContext contextOf(final IntentSlots slots) {
+		return AppointmentRequestContext.of(slots, catalog, Collections.emptyMap());
+	}
+
+	/** Asks for the type or the date when a request that passed validation still lacks one. */
+	ValidationResult requireTypeAndDate(final AppointmentRequestContext context) {
+		if (context.getTypeText() == null) {
+			return ValidationResult.invalid(APPOINTMENT_TYPE_SLOT, prompts.typeAsk.render());
+		}
+		if (context.getDateText() == null) {
+			return ValidationResult.invalid(DATE_SLOT, prompts.dateAsk.render(context.getTypeText()));
+		}
+		return ValidationResult.VALID;
+	}
+
+	DayAvailability getAvailability(final LocalDate date) {
+		return availabilityProvider.getAvailability(date);
+	}
+
+	/**
+	 * Whether a validated request with a type and a date fits {@code availabilities} for that date. When it
+	 * does not, the result says so the way the dialog would: the day is full, or here are the times left.
+	 */
+	ValidationResult checkAvailability(
+			final AppointmentRequestContext context, final DayAvailability availabilities) {
+		AppointmentType type = context.getType();
+		long starts = getAvailabilitiesForType(type, context.getDate(), availabilities);
+		if (starts == 0L) {
+			return ValidationResult.invalid(DATE_SLOT, prompts.dateFull.render());
+		}
+		boolean timeRequested = context.getTime() != null;
+		if (timeRequested && availabilities.hasFreeRun(context.getStartSlot(), type.getSlotCount())) {
+			return ValidationResult.VALID;
+		}
+		String options = Long.bitCount(starts) == 1
+				? prompts.timeOnly.render(buildTimeOutputString(Long.numberOfTrailingZeros(starts)))
+				: buildAvailableTimeString(starts);
+		return ValidationResult.invalid(TIME_SLOT, offerTimes(timeRequested, context.getDateText(), options));
+	}
+
+	private String buildTimeOutputString(final LocalTime appointmentTime) {
+		return prompts.labels.spoken(appointmentTime);
+	}
+
+	private String buildTimeOutputString(final int slot) {
+		return prompts.labels.spoken(slot);
+	}
+
+	private String buildAvailableTimeString(final long availabilities) {
+		long remaining = availabilities;
+		String first = buildTimeOutputString(Long.numberOfTrailingZeros(remaining));
+		remaining &= remaining - 1;
+		String second = buildTimeOutputString(Long.numberOfTrailingZeros(remaining));
+		remaining &= remaining - 1;
+		if (remaining == 0) {
+			return prompts.timeTwo.render(first, second);
+		}
+
+		String third = buildTimeOutputString(Long.numberOfTrailingZeros(remaining));
+		Prompt prompt = Long.bitCount(availabilities) > 3 ? prompts.timeMany : prompts.timeThree;
+		return prompt.render(first, second, third);
+	}
+
+	/** Looks up the card offering options for {@code slot}, timed as part of card building. */
+	private ResponseCard optionsCard(
+			final InvocationMetrics metrics,
+			final String slot,
+			final String title,
+			final String subtitle,
+			final AppointmentType type,
+			final LocalDate date,
+			final DayAvailability availabilities) {
+		long stageStart = metrics.start();
+		ResponseCard card;
+		if (APPOINTMENT_TYPE_SLOT.equals(slot)) {
+			card = cards.appointmentTypes(title, subtitle);
+		} else if (DATE_SLOT.equals(slot)) {
+			// Offer the nearest bookable days, starting from the requested date when it is in the future.
+			LocalDate tomorrow = LocalDate.now(zoneId).plusDays(1);
+			LocalDate from = date != null && date.isAfter(tomorrow) ? date : tomorrow;
+			card = cards.dates(
+					title,
+					subtitle,
+					availabilityProvider.nextAvailableDays(from, type == null ? 1 : type.getSlotCount(), 5));
+		} else if (TIME_SLOT.equals(slot) && type != null && date != null && availabilities != null) {
+			card = cards.times(title, subtitle, getAvailabilitiesForType(type, date, availabilities));
+		} else {
+			card = cards.noOptions(title, subtitle);
+		}
+		metrics.stop(Stage.CARD_BUILD, stageStart);
+		return card;
+	}
+
+	/**
+	 * Someone else booked the requested time between validation and fulfillment: offer what is still free
+	 * that day, or ask for another day when nothing is.
+	 */
+	private LexResponse slotTaken(
+			final IntentRequest intentRequest,
+			final InvocationMetrics metrics,
+			final AppointmentRequestContext context) {
+		IntentSlots slots = intentRequest.getSlots();
+		Map<String, String> outputSessionAttributes = intentRequest.getSessionAttributes();
+		LocalDate date = context.getDate();
+		AppointmentType type = context.getType();
+		String takenTime = buildTimeOutputString(context.getTime());
+		String takenDate = context.getDateText();
+
+		long stageStart = metrics.start();
+		DayAvailability availabilities = availabilityProvider.getAvailability(date);
+		long alternatives = getAvailabilitiesForType(type, date, availabilities);
+		metrics.stop(Stage.AVAILABILITY_LOOKUP, stageStart);
+		encodeBookingMap(outputSessionAttributes, context.withBookedDay(date, availabilities), metrics);
+		outputSessionAttributes.remove("formattedTime");
+		slots.clear(TIME_SLOT);
+
+		if (alternatives == 0L) {
+			slots.clear(DATE_SLOT);
+			String content = prompts.takenNoneLeft.render(takenTime, takenDate);
+			return elicitSlot(
+					outputSessionAttributes,
+					intentRequest.getIntentName(),
+					slots.asMap(),
+					DATE_SLOT,
+					message(content),
+					optionsCard(
+							metrics,
+							DATE_SLOT,
+							prompts.cardDateTitle.render(),
+							content,
+							type,
+							null,
+							null));
+		}
+
+		String content = Long.bitCount(alternatives) == 1
+				? prompts.takenOneLeft.render(
+						takenTime, takenDate, buildTimeOutputString(Long.numberOfTrailingZeros(alternatives)))
+				: prompts.takenSomeLeft.render(takenTime, takenDate, buildAvailableTimeString(alternatives));
+		return elicitSlot(
+				outputSessionAttributes,
+				intentRequest.getIntentName(),
+				slots.asMap(),
+				TIME_SLOT,
+				message(content),
+				optionsCard(
+						metrics,
+						TIME_SLOT,
+						prompts.cardTimeTitle.render(),
+						prompts.cardTimeSubtitle.render(),
+						type,
+						date,
+						availabilities));
+	}
+
+	/**
+	 * Clears the slot {@code validationResult} rejects and asks for it again, with a card of options drawn
+	 * from {@code availabilities} for the requested day when it has any.
+	 */
+	private LexResponse elicitViolatedSlot(
+			final IntentRequest intentRequest,
+			final InvocationMetrics metrics,
+			final AppointmentRequestContext context,
+			final ValidationResult validationResult,
+			final DayAvailability availabilities) {
+		IntentSlots slots = intentRequest.getSlots();
+		String violatedSlot = validationResult.getViolatedSlot();
+		slots.clear(violatedSlot);
+		return elicitSlot(
+				intentRequest.getSessionAttributes(),
+				intentRequest.getIntentName(),
+				slots.asMap(),
+				violatedSlot,
+				message(validationResult.getMessage()),
+				optionsCard(
+						metrics,
+						violatedSlot,
+						prompts.cardInvalidTitle.render(violatedSlot),
+						validationResult.getMessage(),
+						context.getType(),
+						context.getDate(),
+						availabilities));
+	}
+
+	/** Asks for a time on {@code date}, or says the requested one is taken, then lists {@code options}. */
+	private String offerTimes(final boolean requestedTimeTaken, final String date, final String options) {
+		return requestedTimeTaken
+				? prompts.timeUnavailable.render(options)
+				: prompts.timeAsk.render(date, options);
+	}
+
+	private ResponseCard yesNoCard(final InvocationMetrics metrics, final String title, final String subtitle) {
+		long stageStart = metrics.start();
+		ResponseCard card = cards.yesNo(title, subtitle);
+		metrics.stop(Stage.CARD_BUILD, stageStart);
+		return card;
+	}
+
+	private void encodeBookingMap(
+			final Map<String, String> outputSessionAttributes,
+			final Map<LocalDate, DayAvailability> bookingMap,
+			final InvocationMetrics metrics) {
+		long stageStart = metrics.start();
+		String encoded = bookingMapBudget.encode(bookingMap, LocalDate.now(zoneId));
+		outputSessionAttributes.put("bookingMap", encoded);
+		metrics.stop(Stage.SESSION_ENCODE, stageStart);
+		metrics.setBookingMapBytes(encoded.length());
+	}
+
+	@Override
+	public LexResponse handle(final IntentRequest intentRequest, final InvocationMetrics metrics) {
+		IntentSlots slots = intentRequest.getSlots();
+		Map<String, String> outputSessionAttributes = intentRequest.getSessionAttributes();
+		long stageStart = metrics.start();
+		Map<LocalDate, DayAvailability> bookingMap =
+				bookingMapBudget.decode(outputSessionAttributes.get("bookingMap"));
+		metrics.stop(Stage.SESSION_DECODE, stageStart);
+		AppointmentRequestContext context = AppointmentRequestContext.of(slots, catalog, bookingMap);
+		String appointmentType = context.getTypeText();
+		String date = context.getDateText();
+		LocalDate parsedDate = context.getDate();
+
+		if ("DialogCodeHook".equals(intentRequest.getInvocationSource())) {
+			if ("Confirmed".equals(intentRequest.getConfirmationStatus())) {
+				// Only the fulfillment hook reserves a slot, so a confirmed booking must go through it.
+				return delegate(outputSessionAttributes, slots.asMap());
+			}
+			stageStart = metrics.start();
+			ValidationResult validationResult = validateBookAppointment(context);
+			metrics.stop(Stage.VALIDATION, stageStart);
+			if (!validationResult.isValid()) {
+				return elicitViolatedSlot(
+						intentRequest, metrics, context, validationResult, context.getBookedDay(parsedDate));
+			}
+
+			if (appointmentType == null) {
+				String content = prompts.typeAsk.render();
+				return elicitSlot(
+						outputSessionAttributes,
+						intentRequest.getIntentName(),
+						slots.asMap(),
+						APPOINTMENT_TYPE_SLOT,
+						message(content),
+						optionsCard(
+								metrics,
+								APPOINTMENT_TYPE_SLOT,
+								prompts.cardTypeTitle.render(),
+								content,
+								null,
+								null,
+								null));
+			}
+
+			if (date == null) {
+				String content = prompts.dateAsk.render(appointmentType);
+				return elicitSlot(
+						outputSessionAttributes,
+						intentRequest.getIntentName(),
+						slots.asMap(),
+						DATE_SLOT,
+						message(content),
+						optionsCard(
+								metrics,
+								DATE_SLOT,
+								prompts.cardDateTitle.render(),
+								content,
+								context.getType(),
+								null,
+								null));
+			}
+
+			AppointmentType type = context.getType();
+			stageStart = metrics.start();
+			DayAvailability bookingAvailabilties = availabilityProvider.getAvailability(parsedDate);
+			long appointmentTypeAvailabilities =
+					getAvailabilitiesForType(type, parsedDate, bookingAvailabilties);
+			metrics.stop(Stage.AVAILABILITY_LOOKUP, stageStart);
+			if (!context.isLatestBookedDay(parsedDate, bookingAvailabilties)) {
+				encodeBookingMap(
+						outputSessionAttributes,
+						context.withBookedDay(parsedDate, bookingAvailabilties),
+						metrics);
+			}
+
+			if (appointmentTypeAvailabilities == 0L) {
+				slots.clear(DATE_SLOT);
+				slots.clear(TIME_SLOT);
+				String content = prompts.dateFull.render();
+				return elicitSlot(
+						outputSessionAttributes,
+						intentRequest.getIntentName(),
+						slots.asMap(),
+						DATE_SLOT,
+						message(content),
+						optionsCard(
+								metrics,
+								DATE_SLOT,
+								prompts.cardDateTitle.render(),
+								prompts.cardDateSubtitle.render(),
+								type,
+								parsedDate,
+								null));
+			}
+
+			boolean requestedTimeTaken = false;
+			if (context.getTime() != null) {
+				outputSessionAttributes.put("formattedTime", buildTimeOutputString(context.getTime()));
+				stageStart = metrics.start();
+				boolean available =
+						bookingAvailabilties.hasFreeRun(context.getStartSlot(), type.getSlotCount());
+				metrics.stop(Stage.AVAILABILITY_LOOKUP, stageStart);
+				if (available) {
+					return delegate(outputSessionAttributes, slots.asMap());
+				}
+
+				requestedTimeTaken = true;
+			}
+
+			if (Long.bitCount(appointmentTypeAvailabilities) == 1) {
+				int onlyAvailability = Long.numberOfTrailingZeros(appointmentTypeAvailabilities);
+				String content = offerTimes(
+						requestedTimeTaken,
+						date,
+						prompts.timeOnly.render(buildTimeOutputString(onlyAvailability)));
+				slots.put(TIME_SLOT, HalfHourSlots.paddedTimeOf(onlyAvailability));
+				return confirmIntent(
+						outputSessionAttributes,
+						intentRequest.getIntentName(),
+						slots.asMap(),
+						message(content),
+						yesNoCard(
+								metrics,
+								prompts.cardConfirmTitle.render(),
+								prompts.cardConfirmSubtitle.render(
+										buildTimeOutputString(onlyAvailability), date)));
+			}
+
+			String content = offerTimes(
+					requestedTimeTaken, date, buildAvailableTimeString(appointmentTypeAvailabilities));
+			return elicitSlot(
+					outputSessionAttributes,
+					intentRequest.getIntentName(),
+					slots.asMap(),
+					TIME_SLOT,
+					message(content),
+					optionsCard(
+							metrics,
+							TIME_SLOT,
+							prompts.cardTimeTitle.render(),
+							prompts.cardTimeSubtitle.render(),
+							type,
+							parsedDate,
+							bookingAvailabilties));
+		}
+
+		// Fulfillment can be reached without the dialog hook having validated anything, so nothing is
+		// reported booked until the store has reserved it.
+		stageStart = metrics.start();
+		ValidationResult validationResult = validateBookAppointment(context);
+		if (validationResult.isValid()) {
+			validationResult = requireTypeAndDate(context);
+		}
+		metrics.stop(Stage.VALIDATION, stageStart);
+		if (!validationResult.isValid()) {
+			return elicitViolatedSlot(
+					intentRequest, metrics, context, validationResult, context.getBookedDay(parsedDate));
+		}
+		if (context.getTime() == null) {
+			stageStart = metrics.start();
+			DayAvailability availabilities = availabilityProvider.getAvailability(parsedDate);
+			metrics.stop(Stage.AVAILABILITY_LOOKUP, stageStart);
+			ValidationResult offer = checkAvailability(context, availabilities);
+			return elicitViolatedSlot(intentRequest, metrics, context, offer, availabilities);
+		}
+
+		// Book the appointment against the availability store, which every conversation shares.
+		AppointmentType type = context.getType();
+		stageStart = metrics.start();
+		boolean reserved =
+				availabilityProvider.reserve(parsedDate, context.getStartSlot(), type.getSlotCount());
+		metrics.stop(Stage.AVAILABILITY_LOOKUP, stageStart);
+		if (!reserved) {
+			return slotTaken(intentRequest, metrics, context);
+		}
+		encodeBookingMap(
+				outputSessionAttributes,
+				context.withBookedDay(parsedDate, availabilityProvider.getAvailability(parsedDate)),
+				metrics);
+		return close(
+				outputSessionAttributes,
+				DialogAction.FULFILLED,
+				message(prompts.booked.render(buildTimeOutputString(context.getTime()), date)));
+	}
+}
@@ -0,0 +1,108 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.config.PropertiesFiles;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Everything MakeAppointment says, and how it writes times, compiled from
+ * {@code make-appointment-prompts.properties}. An override file only needs the prompts it changes; the
+ * rest keep their bundled text.
+ */
+public final class MakeAppointmentPrompts {
+
+	private static final String RESOURCE = "/make-appointment-prompts.properties";
+
+	final Prompt typeAsk;
+	final Prompt typeUnknown;
+	final Prompt dateAsk;
+	final Prompt dateUnrecognized;
+	final Prompt datePast;
+	final Prompt dateWeekend;
+	final Prompt dateClosed;
+	final Prompt dateFull;
+	final Prompt timeOutsideHours;
+	final Prompt timeUnrecognized;
+	final Prompt timeNotOnStart;
+	final Prompt timeAsk;
+	final Prompt timeUnavailable;
+	final Prompt timeOnly;
+	final Prompt timeTwo;
+	final Prompt timeThree;
+	final Prompt timeMany;
+	final Prompt takenNoneLeft;
+	final Prompt takenOneLeft;
+	final Prompt takenSomeLeft;
+	final Prompt booked;
+	final Prompt cardTypeTitle;
+	final Prompt cardDateTitle;
+	final Prompt cardDateSubtitle;
+	final Prompt cardTimeTitle;
+	final Prompt cardTimeSubtitle;
+	final Prompt cardInvalidTitle;
+	final Prompt cardConfirmTitle;
+	final Prompt cardConfirmSubtitle;
+	final SlotLabels labels;
+
+	private MakeAppointmentPrompts(final Properties properties) {
+		typeAsk = prompt(properties, "type.ask");
+		typeUnknown = prompt(properties, "type.unknown");
+		dateAsk = prompt(properties, "date.ask");
+		dateUnrecognized = prompt(properties, "date.unrecognized");
+		datePast = prompt(properties, "date.past");
+		dateWeekend = prompt(properties, "date.weekend");
+		dateClosed = prompt(properties, "date.closed");
+		dateFull = prompt(properties, "date.full");
+		timeOutsideHours = prompt(properties, "time.outsideHours");
+		timeUnrecognized = prompt(properties, "time.unrecognized");
+		timeNotOnStart = prompt(properties, "time.notOnStart");
+		timeAsk = prompt(properties, "time.ask");
+		timeUnavailable = prompt(properties, "time.unavailable");
+		timeOnly = prompt(properties, "time.only");
+		timeTwo = prompt(properties, "time.two");
+		timeThree = prompt(properties, "time.three");
+		timeMany = prompt(properties, "time.many");
+		takenNoneLeft = prompt(properties, "taken.noneLeft");
+		takenOneLeft = prompt(properties, "taken.oneLeft");
+		takenSomeLeft = prompt(properties, "taken.someLeft");
+		booked = prompt(properties, "booked");
+		cardTypeTitle = prompt(properties, "card.type.title");
+		cardDateTitle = prompt(properties, "card.date.title");
+		cardDateSubtitle = prompt(properties, "card.date.subtitle");
+		cardTimeTitle = prompt(properties, "card.time.title");
+		cardTimeSubtitle = prompt(properties, "card.time.subtitle");
+		cardInvalidTitle = prompt(properties, "card.invalid.title");
+		cardConfirmTitle = prompt(properties, "card.confirm.title");
+		cardConfirmSubtitle = prompt(properties, "card.confirm.subtitle");
+		labels = SlotLabels.compile(
+				Locale.forLanguageTag(properties.getProperty("labels.locale", "en-US").trim()),
+				properties.getProperty("labels.spoken", "12h").trim(),
+				properties.getProperty("labels.display", "12h").trim());
+	}
+
+	/** Loads the file named by {@code MAKE_APPOINTMENT_PROMPTS_PATH} over the bundled prompts. */
+	public static MakeAppointmentPrompts load() {
+		String path = System.getenv("MAKE_APPOINTMENT_PROMPTS_PATH");
+		return load(path == null || path.isEmpty() ? null : Paths.get(path));
+	}
+
+	/** Loads {@code file} over the bundled prompts; null or a missing file leaves them as they are. */
+	public static MakeAppointmentPrompts load(final Path file) {
+		Properties properties = new Properties(PropertiesFiles.load(null, RESOURCE));
+		if (file != null) {
+			properties.putAll(PropertiesFiles.load(file, RESOURCE));
+		}
+		return new MakeAppointmentPrompts(properties);
+	}
+
+	private static Prompt prompt(final Properties properties, final String key) {
+		String template = properties.getProperty(key);
+		if (template == null) {
+			throw new IllegalStateException("No prompt for " + key);
+		}
+		return Prompt.compile(template);
+	}
+}
@@ -0,0 +1,71 @@
+package com.github.cairoatlas.intent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message template with positional {@code {n}} placeholders, split into literals and argument indexes
+ * once when it is loaded. A template without placeholders renders without allocating.
+ */
+final class Prompt {
+
+	private final String[] literals;
+	private final int[] arguments;
+	private final int literalLength;
+
+	private Prompt(final String[] literals, final int[] arguments) {
+		this.literals = literals;
+		this.arguments = arguments;
+		int length = 0;
+		for (String literal : literals) {
+			length += literal.length();
+		}
+		this.literalLength = length;
+	}
+
+	static Prompt compile(final String template) {
+		List<String> literals = new ArrayList<>();
+		List<Integer> arguments = new ArrayList<>();
+		int literalStart = 0;
+		for (int i = 0; i < template.length(); i++) {
+			if (template.charAt(i) != '{') {
+				continue;
+			}
+			int close = i + 1;
+			while (close < template.length() && Character.isDigit(template.charAt(close))) {
+				close++;
+			}
+			if (close == i + 1 || close == template.length() || template.charAt(close) != '}') {
+				// Not a placeholder, so the brace is text.
+				continue;
+			}
+			literals.add(template.substring(literalStart, i));
+			arguments.add(Integer.parseInt(template.substring(i + 1, close)));
+			literalStart = close + 1;
+			i = close;
+		}
+		literals.add(template.substring(literalStart));
+
+		int[] indexes = new int[arguments.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = arguments.get(i);
+		}
+		return new Prompt(literals.toArray(new String[0]), indexes);
+	}
+
+	/** Fills each placeholder with its argument; a placeholder without one renders empty. */
+	String render(final String... values) {
+		if (arguments.length == 0) {
+			return literals[0];
+		}
+		StringBuilder builder = new StringBuilder(literalLength + 32 * arguments.length);
+		builder.append(literals[0]);
+		for (int i = 0; i < arguments.length; i++) {
+			if (arguments[i] < values.length && values[arguments[i]] != null) {
+				builder.append(values[arguments[i]]);
+			}
+			builder.append(literals[i + 1]);
+		}
+		return builder.toString();
+	}
+}
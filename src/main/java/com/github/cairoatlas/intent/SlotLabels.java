@@ -0,0 +1,73 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.availability.HalfHourSlots;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * How the bot writes times, precomputed for each half-hour slot so a label is an array read. Spoken labels
+ * go into messages and display labels onto buttons. Each is {@code 12h} ("4:00 p.m."), {@code 24h}
+ * ("16:00") or a {@link DateTimeFormatter} pattern, formatted for the configured locale. The default
+ * {@code 12h} English labels are built by hand, so no locale data is loaded for them.
+ */
+final class SlotLabels {
+
+	private final String[] spoken = new String[HalfHourSlots.SLOTS_PER_DAY];
+	private final String[] display = new String[HalfHourSlots.SLOTS_PER_DAY];
+	private final Function<LocalTime, String> spokenFormat;
+
+	private SlotLabels(
+			final Function<LocalTime, String> spokenFormat, final Function<LocalTime, String> displayFormat) {
+		this.spokenFormat = spokenFormat;
+		for (int slot = 0; slot < HalfHourSlots.SLOTS_PER_DAY; slot++) {
+			LocalTime time = LocalTime.of(slot / 2, slot % 2 * HalfHourSlots.SLOT_MINUTES);
+			spoken[slot] = spokenFormat.apply(time);
+			display[slot] = displayFormat.apply(time);
+		}
+	}
+
+	static SlotLabels compile(final Locale locale, final String spokenStyle, final String displayStyle) {
+		return new SlotLabels(format(locale, spokenStyle), format(locale, displayStyle));
+	}
+
+	private static Function<LocalTime, String> format(final Locale locale, final String style) {
+		if ("12h".equals(style) && "en".equals(locale.getLanguage())) {
+			return SlotLabels::englishTwelveHour;
+		}
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(
+				"12h".equals(style) ? "h:mm a" : "24h".equals(style) ? "HH:mm" : style, locale);
+		return formatter::format;
+	}
+
+	private static String englishTwelveHour(final LocalTime time) {
+		int hour = time.getHour();
+		int minute = time.getMinute();
+		StringBuilder label = new StringBuilder(10);
+		label.append(hour % 12 == 0 ? 12 : hour % 12).append(':');
+		if (minute < 10) {
+			label.append('0');
+		}
+		label.append(minute).append(hour < 12 ? " a.m." : " p.m.");
+		return label.toString();
+	}
+
+	String spoken(final int slot) {
+		return spoken[slot];
+	}
+
+	String display(final int slot) {
+		return display[slot];
+	}
+
+	/** Times off the half-hour grid only reach here from an unvalidated fulfillment, so they are formatted. */
+	String spoken(final LocalTime time) {
+		boolean onSlot = time.getSecond() == 0 && time.getNano() == 0
+				&& time.getMinute() % HalfHourSlots.SLOT_MINUTES == 0;
+		return onSlot
+				? spoken[time.getHour() * 2 + time.getMinute() / HalfHourSlots.SLOT_MINUTES]
+				: spokenFormat.apply(time);
+	}
+}
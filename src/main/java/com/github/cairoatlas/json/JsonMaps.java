@@ -0,0 +1,62 @@
+package com.github.cairoatlas.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class JsonMaps {
+
+	private JsonMaps() {
+	}
+
+	static String nextStringOrNull(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		return in.nextString();
+	}
+
+	static Integer nextIntegerOrNull(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		return in.nextInt();
+	}
+
+	/** Reads a string-to-string object, keeping null values the way Lex sends unfilled slots. */
+	static Map<String, String> readStringMap(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		Map<String, String> map = new LinkedHashMap<>();
+		in.beginObject();
+		while (in.hasNext()) {
+			map.put(in.nextName(), nextStringOrNull(in));
+		}
+		in.endObject();
+		return map;
+	}
+
+	static void writeStringMap(final JsonWriter out, final Map<String, String> map) throws IOException {
+		if (map == null) {
+			out.nullValue();
+			return;
+		}
+		// Unfilled slots stay in the map as explicit nulls, as the Lambda runtime serializer writes them.
+		boolean serializeNulls = out.getSerializeNulls();
+		out.setSerializeNulls(true);
+		out.beginObject();
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			out.name(String.valueOf(entry.getKey())).value(entry.getValue());
+		}
+		out.endObject();
+		out.setSerializeNulls(serializeNulls);
+	}
+}
@@ -0,0 +1,71 @@
+package com.github.cairoatlas.json;
+
+import com.github.cairoatlas.objects.request.LexRequest;
+import com.github.cairoatlas.objects.response.LexResponse;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Entry points for the hand-written adapters. Nothing here builds a {@code Gson} instance, so no
+ * reflective adapters are created during a cold start. Null fields are omitted, as Gson does by default.
+ */
+public final class LexJson {
+
+	private static final LexRequestAdapter REQUEST_ADAPTER = new LexRequestAdapter();
+	private static final LexResponseAdapter RESPONSE_ADAPTER = new LexResponseAdapter();
+
+	private LexJson() {
+	}
+
+	public static LexRequest readRequest(final Reader reader) throws IOException {
+		return REQUEST_ADAPTER.read(new JsonReader(reader));
+	}
+
+	public static LexResponse readResponse(final Reader reader) throws IOException {
+		return RESPONSE_ADAPTER.read(new JsonReader(reader));
+	}
+
+	public static void writeRequest(final Writer writer, final LexRequest request) throws IOException {
+		JsonWriter out = newWriter(writer);
+		REQUEST_ADAPTER.write(out, request);
+		out.flush();
+	}
+
+	public static void writeResponse(final Writer writer, final LexResponse response) throws IOException {
+		JsonWriter out = newWriter(writer);
+		RESPONSE_ADAPTER.write(out, response);
+		out.flush();
+	}
+
+	public static String toJson(final LexRequest request) {
+		StringWriter writer = new StringWriter();
+		try {
+			writeRequest(writer, request);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+
+	public static String toJson(final LexResponse response) {
+		StringWriter writer = new StringWriter();
+		try {
+			writeResponse(writer, response);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+
+	private static JsonWriter newWriter(final Writer writer) {
+		JsonWriter out = new JsonWriter(writer);
+		out.setSerializeNulls(false);
+		return out;
+	}
+}
@@ -0,0 +1,278 @@
+package com.github.cairoatlas.json;
+
+import com.github.cairoatlas.objects.request.Bot;
+import com.github.cairoatlas.objects.request.CurrentIntent;
+import com.github.cairoatlas.objects.request.LexRequest;
+import com.github.cairoatlas.objects.request.Resolutions;
+import com.github.cairoatlas.objects.request.SlotDetail;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.cairoatlas.json.JsonMaps.nextStringOrNull;
+import static com.github.cairoatlas.json.JsonMaps.readStringMap;
+import static com.github.cairoatlas.json.JsonMaps.writeStringMap;
+
+/**
+ * Reads and writes {@link LexRequest} field by field so Gson never reflects over the request classes.
+ */
+public class LexRequestAdapter extends TypeAdapter<LexRequest> {
+
+	@Override
+	public void write(final JsonWriter out, final LexRequest request) throws IOException {
+		if (request == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("currentIntent");
+		writeCurrentIntent(out, request.getCurrentIntent());
+		out.name("bot");
+		writeBot(out, request.getBot());
+		out.name("userId").value(request.getUserId());
+		out.name("inputTranscript").value(request.getInputTranscript());
+		out.name("invocationSource").value(request.getInvocationSource());
+		out.name("outputDialogMode").value(request.getOutputDialogMode());
+		out.name("messageVersion").value(request.getMessageVersion());
+		out.name("sessionAttributes");
+		writeStringMap(out, request.getSessionAttributes());
+		out.name("requestAttributes");
+		writeStringMap(out, request.getRequestAttributes());
+		out.endObject();
+	}
+
+	@Override
+	public LexRequest read(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		LexRequest request = new LexRequest();
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "currentIntent":
+					request.setCurrentIntent(readCurrentIntent(in));
+					break;
+				case "bot":
+					request.setBot(readBot(in));
+					break;
+				case "userId":
+					request.setUserId(nextStringOrNull(in));
+					break;
+				case "inputTranscript":
+					request.setInputTranscript(nextStringOrNull(in));
+					break;
+				case "invocationSource":
+					request.setInvocationSource(nextStringOrNull(in));
+					break;
+				case "outputDialogMode":
+					request.setOutputDialogMode(nextStringOrNull(in));
+					break;
+				case "messageVersion":
+					request.setMessageVersion(nextStringOrNull(in));
+					break;
+				case "sessionAttributes":
+					request.setSessionAttributes(readStringMap(in));
+					break;
+				case "requestAttributes":
+					request.setRequestAttributes(readStringMap(in));
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+		return request;
+	}
+
+	private static void writeCurrentIntent(final JsonWriter out, final CurrentIntent intent)
+			throws IOException {
+		if (intent == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("name").value(intent.getName());
+		out.name("slots");
+		writeStringMap(out, intent.getSlots());
+		out.name("slotDetails");
+		writeSlotDetails(out, intent.getSlotDetails());
+		out.name("confirmationStatus").value(intent.getConfirmationStatus());
+		out.endObject();
+	}
+
+	private static CurrentIntent readCurrentIntent(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		CurrentIntent intent = new CurrentIntent();
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "name":
+					intent.setName(nextStringOrNull(in));
+					break;
+				case "slots":
+					intent.setSlots(readStringMap(in));
+					break;
+				case "slotDetails":
+					intent.setSlotDetails(readSlotDetails(in));
+					break;
+				case "confirmationStatus":
+					intent.setConfirmationStatus(nextStringOrNull(in));
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+		return intent;
+	}
+
+	private static void writeSlotDetails(final JsonWriter out, final Map<String, SlotDetail> details)
+			throws IOException {
+		if (details == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		for (Map.Entry<String, SlotDetail> entry : details.entrySet()) {
+			out.name(String.valueOf(entry.getKey()));
+			SlotDetail detail = entry.getValue();
+			if (detail == null) {
+				out.nullValue();
+				continue;
+			}
+			out.beginObject();
+			out.name("resolutions");
+			if (detail.getResolutions() == null) {
+				out.nullValue();
+			} else {
+				out.beginArray();
+				for (Resolutions resolution : detail.getResolutions()) {
+					if (resolution == null) {
+						out.nullValue();
+					} else {
+						out.beginObject();
+						out.name("value").value(resolution.getValue());
+						out.endObject();
+					}
+				}
+				out.endArray();
+			}
+			out.name("originalValue").value(detail.getOriginalValue());
+			out.endObject();
+		}
+		out.endObject();
+	}
+
+	private static Map<String, SlotDetail> readSlotDetails(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		Map<String, SlotDetail> details = new LinkedHashMap<>();
+		in.beginObject();
+		while (in.hasNext()) {
+			String slot = in.nextName();
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				details.put(slot, null);
+				continue;
+			}
+			SlotDetail detail = new SlotDetail();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "resolutions":
+						detail.setResolutions(readResolutions(in));
+						break;
+					case "originalValue":
+						detail.setOriginalValue(nextStringOrNull(in));
+						break;
+					default:
+						in.skipValue();
+				}
+			}
+			in.endObject();
+			details.put(slot, detail);
+		}
+		in.endObject();
+		return details;
+	}
+
+	private static List<Resolutions> readResolutions(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		List<Resolutions> resolutions = new ArrayList<>(2);
+		in.beginArray();
+		while (in.hasNext()) {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				continue;
+			}
+			Resolutions resolution = new Resolutions();
+			in.beginObject();
+			while (in.hasNext()) {
+				if ("value".equals(in.nextName())) {
+					resolution.setValue(nextStringOrNull(in));
+				} else {
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			resolutions.add(resolution);
+		}
+		in.endArray();
+		return resolutions;
+	}
+
+	private static void writeBot(final JsonWriter out, final Bot bot) throws IOException {
+		if (bot == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("name").value(bot.getName());
+		out.name("alias").value(bot.getAlias());
+		out.name("version").value(bot.getVersion());
+		out.endObject();
+	}
+
+	private static Bot readBot(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		Bot bot = new Bot();
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "name":
+					bot.setName(nextStringOrNull(in));
+					break;
+				case "alias":
+					bot.setAlias(nextStringOrNull(in));
+					break;
+				case "version":
+					bot.setVersion(nextStringOrNull(in));
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+		return bot;
+	}
+}
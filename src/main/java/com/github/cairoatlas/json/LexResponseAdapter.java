@@ -0,0 +1,329 @@
+package com.github.cairoatlas.json;
+
+import com.github.cairoatlas.objects.response.DialogAction;
+import com.github.cairoatlas.objects.response.DialogActionMessage;
+import com.github.cairoatlas.objects.response.GenericAttachment;
+import com.github.cairoatlas.objects.response.GenericAttachmentButton;
+import com.github.cairoatlas.objects.response.LexResponse;
+import com.github.cairoatlas.objects.response.ResponseCard;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.cairoatlas.json.JsonMaps.nextIntegerOrNull;
+import static com.github.cairoatlas.json.JsonMaps.nextStringOrNull;
+import static com.github.cairoatlas.json.JsonMaps.readStringMap;
+import static com.github.cairoatlas.json.JsonMaps.writeStringMap;
+
+/** Reads and writes {@link LexResponse} field by field so Gson never reflects over the response classes. */
+public class LexResponseAdapter extends TypeAdapter<LexResponse> {
+
+	@Override
+	public void write(final JsonWriter out, final LexResponse response) throws IOException {
+		if (response == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("sessionAttributes");
+		writeStringMap(out, response.getSessionAttributes());
+		out.name("dialogAction");
+		writeDialogAction(out, response.getDialogAction());
+		out.endObject();
+	}
+
+	@Override
+	public LexResponse read(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		Map<String, String> sessionAttributes = null;
+		DialogAction dialogAction = null;
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "sessionAttributes":
+					sessionAttributes = readStringMap(in);
+					break;
+				case "dialogAction":
+					dialogAction = readDialogAction(in);
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+		return new LexResponse(sessionAttributes, dialogAction);
+	}
+
+	private static void writeDialogAction(final JsonWriter out, final DialogAction dialogAction)
+			throws IOException {
+		if (dialogAction == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("type").value(dialogAction.getType());
+		out.name("fulfillmentState").value(dialogAction.getFulfillmentState());
+		out.name("message");
+		writeMessage(out, dialogAction.getMessage());
+		out.name("intentName").value(dialogAction.getIntentName());
+		out.name("slots");
+		writeStringMap(out, dialogAction.getSlots());
+		out.name("slotToElicit").value(dialogAction.getSlotToElicit());
+		out.name("responseCard");
+		writeResponseCard(out, dialogAction.getResponseCard());
+		out.endObject();
+	}
+
+	private static DialogAction readDialogAction(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		String type = null;
+		String fulfillmentState = null;
+		DialogActionMessage message = null;
+		String intentName = null;
+		Map<String, String> slots = null;
+		String slotToElicit = null;
+		ResponseCard responseCard = null;
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "type":
+					type = nextStringOrNull(in);
+					break;
+				case "fulfillmentState":
+					fulfillmentState = nextStringOrNull(in);
+					break;
+				case "message":
+					message = readMessage(in);
+					break;
+				case "intentName":
+					intentName = nextStringOrNull(in);
+					break;
+				case "slots":
+					slots = readStringMap(in);
+					break;
+				case "slotToElicit":
+					slotToElicit = nextStringOrNull(in);
+					break;
+				case "responseCard":
+					responseCard = readResponseCard(in);
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+		return new DialogAction(type, fulfillmentState, message, intentName, slots, slotToElicit, responseCard);
+	}
+
+	private static void writeMessage(final JsonWriter out, final DialogActionMessage message)
+			throws IOException {
+		if (message == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("contentType").value(message.getContentType());
+		out.name("content").value(message.getContent());
+		out.endObject();
+	}
+
+	private static DialogActionMessage readMessage(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		String contentType = DialogActionMessage.PLAIN_TEXT;
+		String content = null;
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "contentType":
+					contentType = nextStringOrNull(in);
+					break;
+				case "content":
+					content = nextStringOrNull(in);
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+		return new DialogActionMessage(contentType, content);
+	}
+
+	private static void writeResponseCard(final JsonWriter out, final ResponseCard responseCard)
+			throws IOException {
+		if (responseCard == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("version").value(responseCard.getVersion());
+		out.name("contentType").value(responseCard.getContentType());
+		out.name("genericAttachments");
+		if (responseCard.getGenericAttachments() == null) {
+			out.nullValue();
+		} else {
+			out.beginArray();
+			for (GenericAttachment attachment : responseCard.getGenericAttachments()) {
+				writeAttachment(out, attachment);
+			}
+			out.endArray();
+		}
+		out.endObject();
+	}
+
+	private static ResponseCard readResponseCard(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		Integer version = null;
+		String contentType = ResponseCard.GENERIC;
+		List<GenericAttachment> attachments = null;
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "version":
+					version = nextIntegerOrNull(in);
+					break;
+				case "contentType":
+					contentType = nextStringOrNull(in);
+					break;
+				case "genericAttachments":
+					if (in.peek() == JsonToken.NULL) {
+						in.nextNull();
+						break;
+					}
+					attachments = new ArrayList<>();
+					in.beginArray();
+					while (in.hasNext()) {
+						attachments.add(readAttachment(in));
+					}
+					in.endArray();
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+		return new ResponseCard(version, contentType, attachments);
+	}
+
+	private static void writeAttachment(final JsonWriter out, final GenericAttachment attachment)
+			throws IOException {
+		if (attachment == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("title").value(attachment.getTitle());
+		out.name("subTitle").value(attachment.getSubTitle());
+		out.name("imageUrl").value(attachment.getImageUrl());
+		out.name("attachmentLinkUrl").value(attachment.getAttachmentLinkUrl());
+		out.name("buttons");
+		if (attachment.getButtons() == null) {
+			out.nullValue();
+		} else {
+			out.beginArray();
+			for (GenericAttachmentButton button : attachment.getButtons()) {
+				writeButton(out, button);
+			}
+			out.endArray();
+		}
+		out.endObject();
+	}
+
+	private static GenericAttachment readAttachment(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		String title = null;
+		String subTitle = null;
+		String imageUrl = null;
+		String attachmentLinkUrl = null;
+		List<GenericAttachmentButton> buttons = null;
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "title":
+					title = nextStringOrNull(in);
+					break;
+				case "subTitle":
+					subTitle = nextStringOrNull(in);
+					break;
+				case "imageUrl":
+					imageUrl = nextStringOrNull(in);
+					break;
+				case "attachmentLinkUrl":
+					attachmentLinkUrl = nextStringOrNull(in);
+					break;
+				case "buttons":
+					if (in.peek() == JsonToken.NULL) {
+						in.nextNull();
+						break;
+					}
+					buttons = new ArrayList<>();
+					in.beginArray();
+					while (in.hasNext()) {
+						buttons.add(readButton(in));
+					}
+					in.endArray();
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+		return new GenericAttachment(title, subTitle, imageUrl, attachmentLinkUrl, buttons);
+	}
+
+	private static void writeButton(final JsonWriter out, final GenericAttachmentButton button)
+			throws IOException {
+		if (button == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("text").value(button.getText());
+		out.name("value").value(button.getValue());
+		out.endObject();
+	}
+
+	private static GenericAttachmentButton readButton(final JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		String text = null;
+		String value = null;
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "text":
+					text = nextStringOrNull(in);
+					break;
+				case "value":
+					value = nextStringOrNull(in);
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+		return new GenericAttachmentButton(text, value);
+	}
+}
@@ -0,0 +1,140 @@
+package com.github.cairoatlas.logging;
+
+import com.github.cairoatlas.json.LexJson;
+import com.github.cairoatlas.objects.request.LexRequest;
+import com.github.cairoatlas.objects.response.DialogAction;
+import com.github.cairoatlas.objects.response.LexResponse;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.MapMessage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs Lex requests and responses for a sample of invocations instead of every one. A sampled invocation
+ * gets one INFO line each for its request and response, built as {@code key="value"} fields only after the
+ * level check passes. Session attribute values are truncated and configured keys are redacted. At DEBUG
+ * every invocation is logged with the full JSON payloads instead.
+ *
+ * <p>Configured through {@code LOG_PAYLOAD_SAMPLE_RATE} (0 to 1, default 0.01),
+ * {@code LOG_ATTRIBUTE_MAX_LENGTH} (default 48) and {@code LOG_REDACTED_ATTRIBUTES} (comma separated).
+ */
+public class PayloadLogger {
+
+	private static final String REDACTED = "<redacted>";
+
+	private final Logger logger;
+	private final double sampleRate;
+	private final int maxAttributeLength;
+	private final Set<String> redactedAttributes;
+
+	public PayloadLogger(
+			final Logger logger,
+			final double sampleRate,
+			final int maxAttributeLength,
+			final Set<String> redactedAttributes) {
+		this.logger = logger;
+		this.sampleRate = sampleRate;
+		this.maxAttributeLength = maxAttributeLength;
+		this.redactedAttributes = redactedAttributes;
+	}
+
+	public static PayloadLogger fromEnvironment(final Logger logger) {
+		String redacted = System.getenv("LOG_REDACTED_ATTRIBUTES");
+		return new PayloadLogger(
+				logger,
+				Double.parseDouble(getenv("LOG_PAYLOAD_SAMPLE_RATE", "0.01")),
+				Integer.parseInt(getenv("LOG_ATTRIBUTE_MAX_LENGTH", "48")),
+				redacted == null || redacted.trim().isEmpty()
+						? Collections.<String>emptySet()
+						: new HashSet<>(Arrays.asList(redacted.trim().split("\\s*,\\s*"))));
+	}
+
+	/** Decides once per invocation, so a sampled request is always paired with its response. */
+	public boolean sample() {
+		if (logger.isDebugEnabled()) {
+			return true;
+		}
+		return logger.isInfoEnabled()
+				&& sampleRate > 0
+				&& (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+	}
+
+	public void request(final LexRequest request) {
+		if (logger.isDebugEnabled()) {
+			logger.debug(() -> new MapMessage(Collections.singletonMap("request", LexJson.toJson(request))));
+			return;
+		}
+		logger.info(() -> {
+			Map<String, String> fields = new HashMap<>();
+			fields.put("event", "lex.request");
+			fields.put("userId", request.getUserId());
+			fields.put("invocationSource", request.getInvocationSource());
+			if (request.getCurrentIntent() != null) {
+				fields.put("intent", request.getCurrentIntent().getName());
+				fields.put("confirmationStatus", request.getCurrentIntent().getConfirmationStatus());
+				fields.put("slots", String.valueOf(request.getCurrentIntent().getSlots()));
+			}
+			if (request.getBot() != null) {
+				fields.put("bot", request.getBot().getName() + ":" + request.getBot().getAlias());
+			}
+			fields.put("sessionAttributes", sanitize(request.getSessionAttributes()));
+			return new MapMessage(fields);
+		});
+	}
+
+	public void response(final LexResponse response) {
+		if (logger.isDebugEnabled()) {
+			logger.debug(() -> new MapMessage(Collections.singletonMap("response", LexJson.toJson(response))));
+			return;
+		}
+		logger.info(() -> {
+			Map<String, String> fields = new HashMap<>();
+			fields.put("event", "lex.response");
+			DialogAction dialogAction = response.getDialogAction();
+			if (dialogAction != null) {
+				fields.put("type", dialogAction.getType());
+				fields.put("slotToElicit", dialogAction.getSlotToElicit());
+				fields.put("fulfillmentState", dialogAction.getFulfillmentState());
+				fields.put("slots", String.valueOf(dialogAction.getSlots()));
+			}
+			fields.put("sessionAttributes", sanitize(response.getSessionAttributes()));
+			return new MapMessage(fields);
+		});
+	}
+
+	String sanitize(final Map<String, String> attributes) {
+		if (attributes == null) {
+			return "null";
+		}
+		StringBuilder builder = new StringBuilder("{");
+		for (Map.Entry<String, String> entry : attributes.entrySet()) {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(entry.getKey()).append('=');
+			String value = entry.getValue();
+			if (redactedAttributes.contains(entry.getKey())) {
+				builder.append(REDACTED);
+			} else if (value != null && value.length() > maxAttributeLength) {
+				builder.append(value, 0, maxAttributeLength)
+						.append("...(")
+						.append(value.length())
+						.append(" chars)");
+			} else {
+				builder.append(value);
+			}
+		}
+		return builder.append('}').toString();
+	}
+
+	private static String getenv(final String name, final String defaultValue) {
+		String value = System.getenv(name);
+		return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+	}
+}
@@ -0,0 +1,238 @@
+package com.github.cairoatlas.metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects stage timings for one invocation and prints them as a single CloudWatch Embedded Metric Format
+ * line, which CloudWatch Logs turns into metrics without an agent or any network call from the function.
+ * Timing a stage is two {@link System#nanoTime()} reads and an array add; stages that run more than once
+ * accumulate. Only stages that actually ran are emitted. Disable with {@code METRICS_ENABLED=false} or
+ * {@code -Dmetrics.enabled=false}.
+ *
+ * <p>Per-invocation allocated bytes are opt-in through {@code METRICS_ALLOCATION=true}, because loading
+ * the platform thread MXBean adds tens of milliseconds to the first invocation.
+ */
+public final class InvocationMetrics {
+
+	private static final boolean ENABLED =
+			!"false".equalsIgnoreCase(System.getProperty("metrics.enabled", System.getenv("METRICS_ENABLED")));
+
+	private static final boolean ALLOCATION_ENABLED =
+			Boolean.parseBoolean(
+					System.getProperty("metrics.allocation", System.getenv("METRICS_ALLOCATION")));
+
+	private static final String NAMESPACE =
+			System.getenv("METRICS_NAMESPACE") == null
+					? "ScheduleAppointmentLexBot"
+					: System.getenv("METRICS_NAMESPACE");
+
+	private static final AtomicBoolean COLD_START = new AtomicBoolean(true);
+
+	private static final InvocationMetrics DISABLED = new InvocationMetrics(false);
+
+	private final boolean enabled;
+	private final long[] stageNanos = new long[Stage.values().length];
+	private final long startNanos;
+	private final long startAllocatedBytes;
+	private final boolean coldStart;
+	private String intentName;
+	private String invocationSource;
+	private long sessionBytesIn = -1;
+	private long sessionBytesOut = -1;
+	private int duplicateFulfillment = -1;
+	private int bookingMapBytes = -1;
+
+	private InvocationMetrics(final boolean enabled) {
+		this.enabled = enabled;
+		this.coldStart = enabled && COLD_START.getAndSet(false);
+		this.startNanos = enabled ? System.nanoTime() : 0L;
+		this.startAllocatedBytes =
+				enabled && ALLOCATION_ENABLED ? Allocation.currentThreadAllocatedBytes() : -1L;
+	}
+
+	public static InvocationMetrics begin() {
+		return ENABLED ? new InvocationMetrics(true) : DISABLED;
+	}
+
+	/** Returns a start mark for {@link #stop}. */
+	public long start() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+	public void stop(final Stage stage, final long startMark) {
+		if (enabled) {
+			stageNanos[stage.ordinal()] += System.nanoTime() - startMark;
+		}
+	}
+
+	public void setIntent(final String intentName, final String invocationSource) {
+		if (enabled) {
+			this.intentName = intentName;
+			this.invocationSource = invocationSource;
+		}
+	}
+
+	public void setSessionBytesIn(final Map<String, String> sessionAttributes) {
+		if (enabled) {
+			sessionBytesIn = encodedSize(sessionAttributes);
+		}
+	}
+
+	public void setSessionBytesOut(final Map<String, String> sessionAttributes) {
+		if (enabled) {
+			sessionBytesOut = encodedSize(sessionAttributes);
+		}
+	}
+
+	/** Records whether a fulfillment turn was a retry answered from the fulfillment cache. */
+	public void setDuplicateFulfillment(final boolean duplicate) {
+		if (enabled) {
+			duplicateFulfillment = duplicate ? 1 : 0;
+		}
+	}
+
+	/** Records the size of the {@code bookingMap} session attribute written this turn. */
+	public void setBookingMapBytes(final int bytes) {
+		if (enabled) {
+			bookingMapBytes = bytes;
+		}
+	}
+
+	public void emit(final PrintStream out, final String requestId) {
+		if (!enabled) {
+			return;
+		}
+		long allocatedBytes =
+				startAllocatedBytes < 0 ? -1 : Allocation.currentThreadAllocatedBytes() - startAllocatedBytes;
+		double invocationMillis = (System.nanoTime() - startNanos) / 1e6;
+
+		StringBuilder metrics = new StringBuilder(512);
+		StringBuilder values = new StringBuilder(512);
+		for (Stage stage : Stage.values()) {
+			if (stageNanos[stage.ordinal()] > 0) {
+				metric(metrics, values, stage.getMetricName(), "Milliseconds", stageNanos[stage.ordinal()] / 1e6);
+			}
+		}
+		metric(metrics, values, "InvocationTime", "Milliseconds", invocationMillis);
+		if (sessionBytesIn >= 0) {
+			metric(metrics, values, "SessionAttributesBytesIn", "Bytes", sessionBytesIn);
+		}
+		if (sessionBytesOut >= 0) {
+			metric(metrics, values, "SessionAttributesBytesOut", "Bytes", sessionBytesOut);
+		}
+		if (duplicateFulfillment >= 0) {
+			metric(metrics, values, "DuplicateFulfillment", "Count", duplicateFulfillment);
+		}
+		if (bookingMapBytes >= 0) {
+			metric(metrics, values, "BookingMapBytes", "Bytes", bookingMapBytes);
+		}
+		if (allocatedBytes >= 0) {
+			metric(metrics, values, "AllocatedBytes", "Bytes", allocatedBytes);
+		}
+		metric(metrics, values, "ColdStart", "Count", coldStart ? 1 : 0);
+
+		StringBuilder line = new StringBuilder(metrics.length() + values.length() + 256);
+		line.append("{\"_aws\":{\"Timestamp\":").append(System.currentTimeMillis())
+				.append(",\"CloudWatchMetrics\":[{\"Namespace\":");
+		string(line, NAMESPACE);
+		line.append(",\"Dimensions\":[[\"IntentName\"]],\"Metrics\":[").append(metrics).append("]}]},\"IntentName\":");
+		string(line, intentName == null ? "Unknown" : intentName);
+		if (invocationSource != null) {
+			line.append(",\"InvocationSource\":");
+			string(line, invocationSource);
+		}
+		if (requestId != null) {
+			line.append(",\"RequestId\":");
+			string(line, requestId);
+		}
+		line.append(values).append('}');
+		out.println(line);
+	}
+
+	private static void metric(
+			final StringBuilder metrics,
+			final StringBuilder values,
+			final String name,
+			final String unit,
+			final double value) {
+		if (metrics.length() > 0) {
+			metrics.append(',');
+		}
+		metrics.append("{\"Name\":\"").append(name).append("\",\"Unit\":\"").append(unit).append("\"}");
+		values.append(",\"").append(name).append("\":");
+		if (value == Math.rint(value)) {
+			values.append((long) value);
+		} else {
+			values.append(value);
+		}
+	}
+
+	private static void string(final StringBuilder line, final String value) {
+		line.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				line.append('\\').append(c);
+			} else if (c < 0x20) {
+				line.append(String.format("\\u%04x", (int) c));
+			} else {
+				line.append(c);
+			}
+		}
+		line.append('"');
+	}
+
+	/** UTF-8 size of the attributes as a JSON object, which is what they cost on the wire. */
+	static long encodedSize(final Map<String, String> sessionAttributes) {
+		if (sessionAttributes == null) {
+			return 0;
+		}
+		long size = 2;
+		for (Map.Entry<String, String> entry : sessionAttributes.entrySet()) {
+			size += utf8Length(entry.getKey()) + 3;
+			size += entry.getValue() == null ? 4 : utf8Length(entry.getValue()) + 2;
+			size += 1;
+		}
+		return sessionAttributes.isEmpty() ? size : size - 1;
+	}
+
+	private static long utf8Length(final String value) {
+		if (value == null) {
+			return 0;
+		}
+		long length = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	// Only loaded when allocation tracking is on.
+	private static final class Allocation {
+		private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+		private static final boolean SUPPORTED = THREADS instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported();
+
+		private static long currentThreadAllocatedBytes() {
+			if (!SUPPORTED) {
+				return -1L;
+			}
+			return ((com.sun.management.ThreadMXBean) THREADS)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.github.cairoatlas.metrics;
+
+public enum Stage {
+	DESERIALIZE("DeserializeTime"),
+	SESSION_DECODE("SessionDecodeTime"),
+	VALIDATION("ValidationTime"),
+	AVAILABILITY_LOOKUP("AvailabilityLookupTime"),
+	CARD_BUILD("CardBuildTime"),
+	SESSION_ENCODE("SessionEncodeTime");
+
+	private final String metricName;
+
+	Stage(final String metricName) {
+		this.metricName = metricName;
+	}
+
+	public String getMetricName() {
+		return metricName;
+	}
+}
@@ -1,41 +1,36 @@
 package com.github.cairoatlas.objects;
 
-import com.github.cairoatlas.objects.response.DialogActionMessage;
-
-public class ValidationResult {
-    private boolean isValid;
-    private String violatedSlot;
-	private DialogActionMessage dialogActionMessage;
-
-	public ValidationResult(final boolean isValid, final String voilatedSlot, final String contentMessage) {
+/**
+ * The outcome of validating an intent's slots: either the shared {@link #VALID} result, or the slot to
+ * elicit again with the message explaining why.
+ */
+public final class ValidationResult {
+	public static final ValidationResult VALID = new ValidationResult(true, null, null);
+
+    private final boolean isValid;
+    private final String violatedSlot;
+    private final String message;
+
+	private ValidationResult(final boolean isValid, final String violatedSlot, final String message) {
 		this.isValid = isValid;
-		this.violatedSlot = getViolatedSlot();
-		DialogActionMessage dialogActionMessage = new DialogActionMessage();
-		dialogActionMessage.setContent(contentMessage);
-		this.dialogActionMessage = dialogActionMessage;
+		this.violatedSlot = violatedSlot;
+		this.message = message;
+	}
+
+	public static ValidationResult invalid(final String violatedSlot, final String message) {
+		return new ValidationResult(false, violatedSlot, message);
 	}
 
     public boolean isValid() {
         return isValid;
     }
 
-    public void setValid(boolean valid) {
-        isValid = valid;
-    }
-
     public String getViolatedSlot() {
         return violatedSlot;
     }
 
-    public void setViolatedSlot(String violatedSlot) {
-        this.violatedSlot = violatedSlot;
-    }
-
-	public DialogActionMessage getDialogActionMessage() {
-		return dialogActionMessage;
-    }
-
-	public void setDialogActionMessage(DialogActionMessage dialogActionMessage) {
-		this.dialogActionMessage = dialogActionMessage;
+    /** What to tell the user about the violated slot; null for {@link #VALID}. */
+    public String getMessage() {
+        return message;
     }
 }
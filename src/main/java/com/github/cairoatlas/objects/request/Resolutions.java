@@ -1,5 +1,17 @@
 package com.github.cairoatlas.objects.request;
 
+/**
+ * One entry of {@link SlotDetail#getResolutions()}: a value Lex resolved the user's input to, such as
+ * "2020-06-05" for "june fifth" or "16:00" for "4 pm".
+ */
 public class Resolutions {
+    private String value;
 
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
 }
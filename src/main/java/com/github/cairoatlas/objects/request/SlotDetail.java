@@ -1,9 +1,28 @@
 package com.github.cairoatlas.objects.request;
 
 import java.util.List;
-import java.util.Map;
 
+/**
+ * What Lex made of one slot: the text the user typed or said, and the values it resolved that text to.
+ * An ambiguous input ("at 4") resolves to several values; one Lex could not resolve has none.
+ */
 public class SlotDetail {
-    private List<Map<String, String>> resolutions;
+    private List<Resolutions> resolutions;
     private String originalValue;
+
+    public List<Resolutions> getResolutions() {
+        return resolutions;
+    }
+
+    public void setResolutions(List<Resolutions> resolutions) {
+        this.resolutions = resolutions;
+    }
+
+    public String getOriginalValue() {
+        return originalValue;
+    }
+
+    public void setOriginalValue(String originalValue) {
+        this.originalValue = originalValue;
+    }
 }
@@ -2,68 +2,94 @@ package com.github.cairoatlas.objects.response;
 
 import java.util.Map;
 
+/**
+ * One Lex V1 dialog action. Build the variants through the static factories, which fill in only the fields
+ * that action type carries; the type and fulfillment state names are shared constants.
+ */
 public class DialogAction {
-    private String type;
-    private String fulfillmentState;
-    private DialogActionMessage message;
-    private String intentName;
-    private Map<String, String> slots;
-    private String slotToElicit;
-    private ResponseCard responseCard;
+    public static final String ELICIT_SLOT = "ElicitSlot";
+    public static final String CONFIRM_INTENT = "ConfirmIntent";
+    public static final String CLOSE = "Close";
+    public static final String DELEGATE = "Delegate";
+
+    public static final String FULFILLED = "Fulfilled";
+    public static final String FAILED = "Failed";
+
+    private final String type;
+    private final String fulfillmentState;
+    private final DialogActionMessage message;
+    private final String intentName;
+    private final Map<String, String> slots;
+    private final String slotToElicit;
+    private final ResponseCard responseCard;
+
+	public DialogAction(
+			final String type,
+			final String fulfillmentState,
+			final DialogActionMessage message,
+			final String intentName,
+			final Map<String, String> slots,
+			final String slotToElicit,
+			final ResponseCard responseCard) {
+		this.type = type;
+		this.fulfillmentState = fulfillmentState;
+		this.message = message;
+		this.intentName = intentName;
+		this.slots = slots;
+		this.slotToElicit = slotToElicit;
+		this.responseCard = responseCard;
+	}
+
+	public static DialogAction elicitSlot(
+			final String intentName,
+			final Map<String, String> slots,
+			final String slotToElicit,
+			final DialogActionMessage message,
+			final ResponseCard responseCard) {
+		return new DialogAction(ELICIT_SLOT, null, message, intentName, slots, slotToElicit, responseCard);
+	}
+
+	public static DialogAction confirmIntent(
+			final String intentName,
+			final Map<String, String> slots,
+			final DialogActionMessage message,
+			final ResponseCard responseCard) {
+		return new DialogAction(CONFIRM_INTENT, null, message, intentName, slots, null, responseCard);
+	}
+
+	public static DialogAction close(final String fulfillmentState, final DialogActionMessage message) {
+		return new DialogAction(CLOSE, fulfillmentState, message, null, null, null, null);
+	}
+
+	public static DialogAction delegate(final Map<String, String> slots) {
+		return new DialogAction(DELEGATE, null, null, null, slots, null, null);
+	}
 
     public String getType() {
         return type;
     }
 
-    public void setType(String type) {
-        this.type = type;
-    }
-
     public String getFulfillmentState() {
         return fulfillmentState;
     }
 
-    public void setFulfillmentState(String fulfillmentState) {
-        this.fulfillmentState = fulfillmentState;
-    }
-
     public DialogActionMessage getMessage() {
         return message;
     }
 
-    public void setMessage(DialogActionMessage message) {
-        this.message = message;
-    }
-
     public String getIntentName() {
         return intentName;
     }
 
-    public void setIntentName(String intentName) {
-        this.intentName = intentName;
-    }
-
     public Map<String, String> getSlots() {
         return slots;
     }
 
-    public void setSlots(Map<String, String> slots) {
-        this.slots = slots;
-    }
-
     public String getSlotToElicit() {
         return slotToElicit;
     }
 
-    public void setSlotToElicit(String slotToElicit) {
-        this.slotToElicit = slotToElicit;
-    }
-
     public ResponseCard getResponseCard() {
         return responseCard;
     }
-
-    public void setResponseCard(ResponseCard responseCard) {
-        this.responseCard = responseCard;
-    }
 }
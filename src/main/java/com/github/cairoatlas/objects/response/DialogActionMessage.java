@@ -1,22 +1,26 @@
 package com.github.cairoatlas.objects.response;
 
+/** The text Lex shows or speaks with a dialog action. Immutable, so one instance can be reused freely. */
 public class DialogActionMessage {
-	private String contentType = "PlainText";
-    private String content;
+    public static final String PLAIN_TEXT = "PlainText";
+
+    private final String contentType;
+    private final String content;
+
+	public DialogActionMessage(final String content) {
+		this(PLAIN_TEXT, content);
+	}
+
+	public DialogActionMessage(final String contentType, final String content) {
+		this.contentType = contentType;
+		this.content = content;
+	}
 
     public String getContentType() {
         return contentType;
     }
 
-    public void setContentType(String contentType) {
-        this.contentType = contentType;
-    }
-
     public String getContent() {
         return content;
     }
-
-    public void setContent(String content) {
-        this.content = content;
-    }
 }
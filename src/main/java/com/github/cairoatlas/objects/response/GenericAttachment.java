@@ -1,57 +1,53 @@
 package com.github.cairoatlas.objects.response;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/** One attachment of a {@link ResponseCard}. Immutable, like the card. */
 public class GenericAttachment {
 
-    private String title;
-    private String subTitle;
-    private String imageUrl;
-    private String attachmentLinkUrl;
-    private List<GenericAttachmentButton> buttons;
+    private final String title;
+    private final String subTitle;
+    private final String imageUrl;
+    private final String attachmentLinkUrl;
+    private final List<GenericAttachmentButton> buttons;
 
-	public GenericAttachment(final String title, final String subtitle) {
+	public GenericAttachment(
+			final String title, final String subtitle, final List<GenericAttachmentButton> buttons) {
+		this(title, subtitle, null, null, buttons);
+	}
+
+	public GenericAttachment(
+			final String title,
+			final String subtitle,
+			final String imageUrl,
+			final String attachmentLinkUrl,
+			final List<GenericAttachmentButton> buttons) {
 		this.title = title;
 		this.subTitle = subtitle;
+		this.imageUrl = imageUrl;
+		this.attachmentLinkUrl = attachmentLinkUrl;
+		this.buttons = buttons == null ? null : Collections.unmodifiableList(new ArrayList<>(buttons));
 	}
 
     public String getTitle() {
         return title;
     }
 
-    public void setTitle(String title) {
-        this.title = title;
-    }
-
     public String getSubTitle() {
         return subTitle;
     }
 
-    public void setSubTitle(String subTitle) {
-        this.subTitle = subTitle;
-    }
-
     public String getImageUrl() {
         return imageUrl;
     }
 
-    public void setImageUrl(String imageUrl) {
-        this.imageUrl = imageUrl;
-    }
-
     public String getAttachmentLinkUrl() {
         return attachmentLinkUrl;
     }
 
-    public void setAttachmentLinkUrl(String attachmentLinkUrl) {
-        this.attachmentLinkUrl = attachmentLinkUrl;
-    }
-
     public List<GenericAttachmentButton> getButtons() {
         return buttons;
     }
-
-    public void setButtons(List<GenericAttachmentButton> buttons) {
-        this.buttons = buttons;
-    }
 }
@@ -1,8 +1,9 @@
 package com.github.cairoatlas.objects.response;
 
+/** One button of a {@link GenericAttachment}. Immutable, like the card. */
 public class GenericAttachmentButton {
-    private String text;
-    private String value;
+    private final String text;
+    private final String value;
 
 	public GenericAttachmentButton(final String text, final String value) {
 		this.text = text;
@@ -13,15 +14,7 @@ public class GenericAttachmentButton {
         return text;
     }
 
-    public void setText(String text) {
-        this.text = text;
-    }
-
     public String getValue() {
         return value;
     }
-
-    public void setValue(String value) {
-        this.value = value;
-    }
 }
@@ -2,23 +2,24 @@ package com.github.cairoatlas.objects.response;
 
 import java.util.Map;
 
+/**
+ * A Lambda response to Lex. The session attributes are the handler's own map, held by reference rather
+ * than copied, so they are written out exactly as the handler left them.
+ */
 public class LexResponse {
-    private Map<String, String> sessionAttributes;
-    private DialogAction dialogAction;
+    private final Map<String, String> sessionAttributes;
+    private final DialogAction dialogAction;
+
+	public LexResponse(final Map<String, String> sessionAttributes, final DialogAction dialogAction) {
+		this.sessionAttributes = sessionAttributes;
+		this.dialogAction = dialogAction;
+	}
 
     public Map<String, String> getSessionAttributes() {
         return sessionAttributes;
     }
 
-    public void setSessionAttributes(Map<String, String> sessionAttributes) {
-        this.sessionAttributes = sessionAttributes;
-    }
-
     public DialogAction getDialogAction() {
         return dialogAction;
     }
-
-    public void setDialogAction(DialogAction dialogAction) {
-        this.dialogAction = dialogAction;
-    }
 }
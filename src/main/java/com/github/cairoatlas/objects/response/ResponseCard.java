@@ -1,38 +1,35 @@
 package com.github.cairoatlas.objects.response;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/** A Lex response card. Immutable, so one instance can be reused freely across responses and threads. */
 public class ResponseCard {
-    private Integer version;
-    private String contentType;
-    private List<GenericAttachment> genericAttachments;
+    public static final String GENERIC = "application/vnd.amazonaws.card.generic";
 
-	public ResponseCard(final Integer version, final String contentType) {
+    private final Integer version;
+    private final String contentType;
+    private final List<GenericAttachment> genericAttachments;
+
+	public ResponseCard(
+			final Integer version, final String contentType, final List<GenericAttachment> genericAttachments) {
 		this.version = version;
 		this.contentType = contentType;
+		this.genericAttachments = genericAttachments == null
+				? null
+				: Collections.unmodifiableList(new ArrayList<>(genericAttachments));
 	}
 
     public Integer getVersion() {
         return version;
     }
 
-    public void setVersion(Integer version) {
-        this.version = version;
-    }
-
     public String getContentType() {
         return contentType;
     }
 
-    public void setContentType(String contentType) {
-        this.contentType = contentType;
-    }
-
     public List<GenericAttachment> getGenericAttachments() {
         return genericAttachments;
     }
-
-    public void setGenericAttachments(List<GenericAttachment> genericAttachments) {
-        this.genericAttachments = genericAttachments;
-    }
 }
@@ -0,0 +1,51 @@
+package com.github.cairoatlas.session;
+
+import com.github.cairoatlas.availability.DayAvailability;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Keeps the {@code bookingMap} session attribute under a byte budget. Lex caps the size of session
+ * attributes and sends them back on every turn, so a user who asks about many dates would otherwise carry
+ * every one of them, past dates included, for the rest of the conversation.
+ *
+ * <p>Maps are expected to iterate least recently used day first, which {@link CompactBookingMapCodec}
+ * preserves across turns.
+ */
+public final class BookingMapBudget {
+
+	private final BookingMapCodec codec;
+	private final int maxBytes;
+
+	/**
+	 * @param maxBytes the most the encoded attribute may take; its value is ASCII, so this is also its
+	 *                 length in characters
+	 */
+	public BookingMapBudget(final BookingMapCodec codec, final int maxBytes) {
+		this.codec = codec;
+		this.maxBytes = maxBytes;
+	}
+
+	public Map<LocalDate, DayAvailability> decode(final String value) {
+		return codec.decode(value);
+	}
+
+	/**
+	 * Drops the days before {@code today} from {@code bookingMap}, then the least recently used days until
+	 * the encoding fits the budget, and returns that encoding. {@code bookingMap} is trimmed in place.
+	 */
+	public String encode(final Map<LocalDate, DayAvailability> bookingMap, final LocalDate today) {
+		bookingMap.keySet().removeIf(day -> day.isBefore(today));
+		String encoded = codec.encode(bookingMap);
+		// A turn records at most one new day, so once a conversation is at the budget this drops one day.
+		Iterator<LocalDate> leastRecentlyUsed = bookingMap.keySet().iterator();
+		while (encoded.length() > maxBytes && leastRecentlyUsed.hasNext()) {
+			leastRecentlyUsed.next();
+			leastRecentlyUsed.remove();
+			encoded = codec.encode(bookingMap);
+		}
+		return encoded;
+	}
+}
@@ -0,0 +1,17 @@
+package com.github.cairoatlas.session;
+
+import com.github.cairoatlas.availability.DayAvailability;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Converts the per-date availability carried in the {@code bookingMap} session attribute to and from its
+ * string form. Decoded maps are mutable so the handler can record new days and bookings in them.
+ */
+public interface BookingMapCodec {
+
+	Map<LocalDate, DayAvailability> decode(String value);
+
+	String encode(Map<LocalDate, DayAvailability> bookingMap);
+}
@@ -0,0 +1,90 @@
+package com.github.cairoatlas.session;
+
+import com.github.cairoatlas.availability.DayAvailability;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Packs each day into a bitmask of its free half-hour slots. Days are written in the map's iteration order
+ * as a zigzag varint epoch day followed by zigzag varint deltas, each followed by the varint mask, and the
+ * bytes are base64url encoded behind a version marker. Decoded maps iterate in that same order, so an
+ * ordering the handler keeps (least recently used first) survives the round trip through the session.
+ *
+ * <p>Values without the marker are handed to the legacy codec so conversations started before the switch
+ * keep their availability.
+ */
+public class CompactBookingMapCodec implements BookingMapCodec {
+
+	static final String VERSION_MARKER = "~2";
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final BookingMapCodec legacyCodec;
+
+	public CompactBookingMapCodec(final BookingMapCodec legacyCodec) {
+		this.legacyCodec = legacyCodec;
+	}
+
+	@Override
+	public Map<LocalDate, DayAvailability> decode(final String value) {
+		if (value == null || !value.startsWith(VERSION_MARKER)) {
+			return legacyCodec.decode(value);
+		}
+		byte[] bytes = DECODER.decode(value.substring(VERSION_MARKER.length()));
+		Map<LocalDate, DayAvailability> bookingMap = new LinkedHashMap<>();
+		int[] position = {0};
+		// The first day's delta is taken from epoch day 0, so every day decodes the same way.
+		long epochDay = 0;
+		while (position[0] < bytes.length) {
+			long delta = readVarint(bytes, position);
+			epochDay += (delta >>> 1) ^ -(delta & 1);
+			bookingMap.put(LocalDate.ofEpochDay(epochDay), DayAvailability.of(readVarint(bytes, position)));
+		}
+		return bookingMap;
+	}
+
+	@Override
+	public String encode(final Map<LocalDate, DayAvailability> bookingMap) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(bookingMap.size() * 8);
+		long previous = 0;
+		boolean first = true;
+		for (Map.Entry<LocalDate, DayAvailability> entry : bookingMap.entrySet()) {
+			long epochDay = entry.getKey().toEpochDay();
+			long delta = first ? epochDay : epochDay - previous;
+			writeVarint(out, (delta << 1) ^ (delta >> 63));
+			first = false;
+			previous = epochDay;
+			writeVarint(out, entry.getValue().freeSlots());
+		}
+		return VERSION_MARKER + ENCODER.encodeToString(out.toByteArray());
+	}
+
+	private static void writeVarint(final ByteArrayOutputStream out, final long value) {
+		long remaining = value;
+		while ((remaining & ~0x7FL) != 0) {
+			out.write((int) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		out.write((int) remaining);
+	}
+
+	private static long readVarint(final byte[] bytes, final int[] position) {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			if (position[0] >= bytes.length || shift > 63) {
+				throw new IllegalArgumentException("Truncated booking map");
+			}
+			b = bytes[position[0]++];
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+}
@@ -0,0 +1,88 @@
+package com.github.cairoatlas.session;
+
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.availability.HalfHourSlots;
+import com.github.cairoatlas.date.DateRecognizer;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The original {@code {"2020-06-05":["10:00","16:30"]}} format. Keys were the raw Date slot text, so they
+ * are run back through the {@link DateRecognizer}; entries whose key no longer parses are dropped. The
+ * JSON is streamed directly rather than bound through a {@code Gson} instance.
+ */
+public class JsonBookingMapCodec implements BookingMapCodec {
+
+	private final DateRecognizer dateRecognizer;
+
+	public JsonBookingMapCodec(final DateRecognizer dateRecognizer) {
+		this.dateRecognizer = dateRecognizer;
+	}
+
+	@Override
+	public Map<LocalDate, DayAvailability> decode(final String value) {
+		Map<LocalDate, DayAvailability> bookingMap = new HashMap<>();
+		if (value == null || value.isEmpty()) {
+			return bookingMap;
+		}
+		try (JsonReader in = new JsonReader(new StringReader(value))) {
+			if (in.peek() == JsonToken.NULL) {
+				return bookingMap;
+			}
+			in.beginObject();
+			while (in.hasNext()) {
+				Optional<LocalDate> date = dateRecognizer.recognize(in.nextName());
+				if (in.peek() == JsonToken.NULL) {
+					in.nextNull();
+					continue;
+				}
+				long freeSlots = 0L;
+				in.beginArray();
+				while (in.hasNext()) {
+					int slot = HalfHourSlots.indexOf(in.nextString());
+					if (slot >= 0) {
+						freeSlots |= 1L << slot;
+					}
+				}
+				in.endArray();
+				if (date.isPresent()) {
+					bookingMap.put(date.get(), DayAvailability.of(freeSlots));
+				}
+			}
+			in.endObject();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Malformed booking map", e);
+		}
+		return bookingMap;
+	}
+
+	@Override
+	public String encode(final Map<LocalDate, DayAvailability> bookingMap) {
+		StringWriter writer = new StringWriter();
+		try (JsonWriter out = new JsonWriter(writer)) {
+			out.beginObject();
+			for (Map.Entry<LocalDate, DayAvailability> entry : bookingMap.entrySet()) {
+				out.name(entry.getKey().toString());
+				out.beginArray();
+				for (long remaining = entry.getValue().freeSlots(); remaining != 0; remaining &= remaining - 1) {
+					out.value(HalfHourSlots.timeOf(Long.numberOfTrailingZeros(remaining)));
+				}
+				out.endArray();
+			}
+			out.endObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+}
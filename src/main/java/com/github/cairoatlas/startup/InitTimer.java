@@ -0,0 +1,76 @@
+package com.github.cairoatlas.startup;
+
+import com.github.cairoatlas.ScheduleAppointmentRequestHandler;
+import com.github.cairoatlas.objects.request.Bot;
+import com.github.cairoatlas.objects.request.CurrentIntent;
+import com.github.cairoatlas.objects.request.LexRequest;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures what a cold start pays in-process: initializing the handler class and serving a first
+ * DialogCodeHook turn. Pass a budget in milliseconds as the only argument to exit with status 1 when the
+ * total exceeds it. The {@code appcds} build profile also uses this as the training run for the class
+ * data sharing archive.
+ */
+public final class InitTimer {
+
+	private InitTimer() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		long start = System.nanoTime();
+		Class.forName(
+				"com.github.cairoatlas.ScheduleAppointmentRequestHandler",
+				true,
+				InitTimer.class.getClassLoader());
+		long classInitialized = System.nanoTime();
+
+		ScheduleAppointmentRequestHandler handler = new ScheduleAppointmentRequestHandler();
+		handler.handleRequest(sampleRequest(), null);
+		long firstInvocation = System.nanoTime();
+
+		double classInitMillis = (classInitialized - start) / 1e6;
+		double invocationMillis = (firstInvocation - classInitialized) / 1e6;
+		double totalMillis = (firstInvocation - start) / 1e6;
+		System.out.printf(
+				"class init: %.1f ms, first invocation: %.1f ms, total: %.1f ms%n",
+				classInitMillis, invocationMillis, totalMillis);
+
+		if (args.length > 0 && totalMillis > Double.parseDouble(args[0])) {
+			System.err.printf("Cold start of %.1f ms exceeds the %s ms budget%n", totalMillis, args[0]);
+			System.exit(1);
+		}
+	}
+
+	private static LexRequest sampleRequest() {
+		LocalDate date = LocalDate.now(ZoneId.of("America/New_York")).plusDays(7);
+
+		Map<String, String> slots = new HashMap<>();
+		slots.put("AppointmentType", "cleaning");
+		slots.put("Date", date.toString());
+		slots.put("Time", null);
+
+		CurrentIntent intent = new CurrentIntent();
+		intent.setName("MakeAppointment");
+		intent.setConfirmationStatus("None");
+		intent.setSlots(slots);
+
+		Bot bot = new Bot();
+		bot.setName("ScheduleAppointment");
+		bot.setAlias("$LATEST");
+		bot.setVersion("$LATEST");
+
+		LexRequest request = new LexRequest();
+		request.setCurrentIntent(intent);
+		request.setBot(bot);
+		request.setUserId("init-timer");
+		request.setInvocationSource("DialogCodeHook");
+		request.setOutputDialogMode("Text");
+		request.setMessageVersion("1.0");
+		return request;
+	}
+}
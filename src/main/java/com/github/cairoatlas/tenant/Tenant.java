@@ -0,0 +1,31 @@
+package com.github.cairoatlas.tenant;
+
+import com.github.cairoatlas.date.DateRecognizer;
+import com.github.cairoatlas.intent.IntentRegistry;
+
+/** One practice's bot: its intent handlers, which carry its calendar, catalog and prompts. */
+public final class Tenant {
+
+	private final String id;
+	private final DateRecognizer dateRecognizer;
+	private final IntentRegistry intents;
+
+	public Tenant(final String id, final DateRecognizer dateRecognizer, final IntentRegistry intents) {
+		this.id = id;
+		this.dateRecognizer = dateRecognizer;
+		this.intents = intents;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	/** Reads dates in the practice's time zone. */
+	public DateRecognizer getDateRecognizer() {
+		return dateRecognizer;
+	}
+
+	public IntentRegistry getIntents() {
+		return intents;
+	}
+}
@@ -0,0 +1,104 @@
+package com.github.cairoatlas.tenant;
+
+import com.github.cairoatlas.cache.BoundedLoadingCache;
+import com.github.cairoatlas.objects.request.Bot;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Resolves the {@link Tenant} for a Lex bot and keeps at most {@code maxTenants} of them loaded in a
+ * {@link BoundedLoadingCache}. Tenants load on first use; concurrent first uses wait on a single load. Past
+ * the bound, the least recently used tenant is dropped and loads again when next asked for. Which tenant a
+ * bot routes to is remembered separately, so a hit is two map reads.
+ */
+public final class TenantDirectory {
+
+	private final TenantRoutes routes;
+	private final Function<String, Tenant> loader;
+	private final int maxBots;
+	private final ConcurrentHashMap<BotKey, String> tenantIds;
+	private final BoundedLoadingCache<String, Tenant> tenants;
+
+	public TenantDirectory(
+			final TenantRoutes routes, final Function<String, Tenant> loader, final int maxTenants) {
+		if (maxTenants < 1) {
+			throw new IllegalArgumentException("maxTenants must be positive, was " + maxTenants);
+		}
+		this.routes = routes;
+		this.loader = loader;
+		// Bots outnumber tenants when several aliases and versions share one.
+		this.maxBots = maxTenants * 8;
+		this.tenantIds = new ConcurrentHashMap<>(Math.min(maxBots, 1024));
+		this.tenants = new BoundedLoadingCache<>(maxTenants);
+	}
+
+	/** The tenant serving {@code bot}; throws when no route or default covers it. */
+	public Tenant resolve(final Bot bot) {
+		String tenantId = routes.fixedTenantId();
+		if (tenantId == null) {
+			tenantId = routedTenantId(bot);
+		}
+		if (tenantId == null) {
+			throw new IllegalStateException("No tenant configured for bot "
+					+ (bot == null ? null : bot.getName() + "/" + bot.getAlias() + "/" + bot.getVersion()));
+		}
+		return tenants.get(tenantId, loader);
+	}
+
+	/** How many tenants are loaded right now. */
+	public int size() {
+		return tenants.size();
+	}
+
+	private String routedTenantId(final Bot bot) {
+		if (bot == null) {
+			return routes.tenantIdFor(null);
+		}
+		BotKey key = new BotKey(bot.getName(), bot.getAlias(), bot.getVersion());
+		String tenantId = tenantIds.get(key);
+		if (tenantId == null) {
+			tenantId = routes.tenantIdFor(bot);
+			if (tenantId != null) {
+				if (tenantIds.size() >= maxBots) {
+					// Routes never change, so forgetting them only costs a recompute.
+					tenantIds.clear();
+				}
+				tenantIds.put(key, tenantId);
+			}
+		}
+		return tenantId;
+	}
+
+	private static final class BotKey {
+		private final String name;
+		private final String alias;
+		private final String version;
+		private final int hash;
+
+		private BotKey(final String name, final String alias, final String version) {
+			this.name = name;
+			this.alias = alias;
+			this.version = version;
+			this.hash =
+					(Objects.hashCode(name) * 31 + Objects.hashCode(alias)) * 31 + Objects.hashCode(version);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof BotKey)) {
+				return false;
+			}
+			BotKey other = (BotKey) o;
+			return Objects.equals(name, other.name)
+					&& Objects.equals(alias, other.alias)
+					&& Objects.equals(version, other.version);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
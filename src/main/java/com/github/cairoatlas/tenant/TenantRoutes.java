@@ -0,0 +1,93 @@
+package com.github.cairoatlas.tenant;
+
+import com.github.cairoatlas.config.PropertiesFiles;
+import com.github.cairoatlas.objects.request.Bot;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Which tenant serves a Lex bot, from {@code tenants.properties}. A route is keyed by bot name, name and
+ * alias, or name, alias and version, joined with {@code /}; the most specific route that matches wins, and
+ * {@code default} catches bots without one.
+ */
+public final class TenantRoutes {
+
+	private static final String ROUTE_PREFIX = "route.";
+
+	// Tenant ids name directories and store files.
+	private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+	private final Map<String, String> routes;
+	private final String defaultTenantId;
+
+	private TenantRoutes(final Map<String, String> routes, final String defaultTenantId) {
+		this.routes = routes;
+		this.defaultTenantId = defaultTenantId;
+	}
+
+	/** Every bot goes to {@code tenantId}. */
+	public static TenantRoutes single(final String tenantId) {
+		return new TenantRoutes(Collections.<String, String>emptyMap(), checkId(tenantId, "default"));
+	}
+
+	/**
+	 * Loads {@code file}, throwing when it is missing: falling back to the bundled example would quietly send
+	 * every bot to its tenants.
+	 */
+	public static TenantRoutes load(final Path file) {
+		return compile(PropertiesFiles.load(file));
+	}
+
+	public static TenantRoutes compile(final Properties properties) {
+		Map<String, String> routes = new HashMap<>();
+		for (String key : properties.stringPropertyNames()) {
+			if (key.startsWith(ROUTE_PREFIX)) {
+				routes.put(
+						key.substring(ROUTE_PREFIX.length()), checkId(properties.getProperty(key).trim(), key));
+			}
+		}
+		String defaultTenantId = properties.getProperty("default", "").trim();
+		return new TenantRoutes(
+				Collections.unmodifiableMap(routes),
+				defaultTenantId.isEmpty() ? null : checkId(defaultTenantId, "default"));
+	}
+
+	private static String checkId(final String tenantId, final String key) {
+		if (!TENANT_ID.matcher(tenantId).matches()) {
+			throw new IllegalArgumentException("Bad tenant id for " + key + ": '" + tenantId + "'");
+		}
+		return tenantId;
+	}
+
+	/** The tenant every bot goes to when there are no routes, otherwise null. */
+	String fixedTenantId() {
+		return routes.isEmpty() ? defaultTenantId : null;
+	}
+
+	/** The tenant serving {@code bot}, or null when no route or default covers it. */
+	public String tenantIdFor(final Bot bot) {
+		if (bot != null && bot.getName() != null && !routes.isEmpty()) {
+			String name = bot.getName();
+			if (bot.getAlias() != null) {
+				String alias = name + "/" + bot.getAlias();
+				String tenantId = bot.getVersion() == null ? null : routes.get(alias + "/" + bot.getVersion());
+				if (tenantId == null) {
+					tenantId = routes.get(alias);
+				}
+				if (tenantId != null) {
+					return tenantId;
+				}
+			}
+			String tenantId = routes.get(name);
+			if (tenantId != null) {
+				return tenantId;
+			}
+		}
+		return defaultTenantId;
+	}
+}
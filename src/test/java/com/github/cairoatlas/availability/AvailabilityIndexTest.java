@@ -0,0 +1,197 @@
+package com.github.cairoatlas.availability;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AvailabilityIndexTest {
+
+	private static final ZoneId ZONE = ZoneOffset.UTC;
+
+	private static final long ALL_STARTS = -1L;
+
+	@Test
+	public void findsTheSameDaysAsAScanForAnyHorizon() {
+		Random random = new Random(7);
+		for (int horizon : new int[] {1, 2, 3, 63, 64, 65, 90, 128}) {
+			LocalDate today = LocalDate.now(ZONE);
+			StubProvider store = new StubProvider();
+			for (int day = 0; day < horizon; day++) {
+				// Mostly full days, so the search has to climb past long stretches of them.
+				long free = random.nextInt(4) == 0 ? random.nextLong() & ((1L << 48) - 1) : 0L;
+				store.days.put(today.plusDays(day), free);
+			}
+			AvailabilityIndex index = new AvailabilityIndex(store, ZONE, horizon, date -> ALL_STARTS);
+			for (int from = 0; from <= horizon; from++) {
+				for (int need = 1; need <= 8; need++) {
+					assertEquals(
+							"horizon " + horizon + ", from " + from + ", need " + need,
+							scan(store, today, horizon, from, need, 5),
+							index.nextAvailableDays(today.plusDays(from), need, 5));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void searchesFromTheLastLeaf() {
+		for (int horizon : new int[] {64, 65, 90}) {
+			LocalDate today = LocalDate.now(ZONE);
+			LocalDate last = today.plusDays(horizon - 1);
+			StubProvider store = new StubProvider();
+			store.days.put(today, 1L);
+			store.days.put(last, 1L);
+			AvailabilityIndex index = new AvailabilityIndex(store, ZONE, horizon, date -> ALL_STARTS);
+
+			assertEquals(Collections.singletonList(last), index.nextAvailableDays(last, 1, 5));
+			assertEquals(Arrays.asList(today, last), index.nextAvailableDays(today, 1, 5));
+			assertEquals(Collections.emptyList(), index.nextAvailableDays(last, 2, 5));
+			assertEquals(Collections.emptyList(), index.nextAvailableDays(last.plusDays(1), 1, 5));
+
+			store.days.put(last, 0L);
+			index.getAvailability(last);
+			assertEquals(Collections.emptyList(), index.nextAvailableDays(last, 1, 5));
+		}
+	}
+
+	@Test
+	public void onlyCountsRunsThatStartAtAnAllowedSlot() {
+		LocalDate today = LocalDate.now(ZONE);
+		StubProvider store = new StubProvider();
+		store.days.put(today.plusDays(1), 0b1110L);
+		AvailabilityIndex index = new AvailabilityIndex(store, ZONE, 7, date -> 0b0100L);
+
+		assertEquals(Collections.singletonList(today.plusDays(1)), index.nextAvailableDays(today, 2, 5));
+		assertEquals(Collections.emptyList(), index.nextAvailableDays(today, 3, 5));
+	}
+
+	@Test
+	public void aReadThatRacedAReservationDoesNotRestoreTheDay() throws Exception {
+		LocalDate today = LocalDate.now(ZONE);
+		LocalDate day = today.plusDays(3);
+		StubProvider store = new StubProvider();
+		store.days.put(day, 1L << 20);
+		AvailabilityIndex index = new AvailabilityIndex(store, ZONE, 30, date -> ALL_STARTS);
+		assertEquals(Collections.singletonList(day), index.nextAvailableDays(today, 1, 5));
+
+		// The reader sees the slot free, then stalls until the reservation has gone through.
+		store.stallNextRead.set(true);
+		Thread reader = new Thread(() -> index.getAvailability(day));
+		reader.start();
+		assertTrue(store.readStalled.await(10, TimeUnit.SECONDS));
+		Thread reserver = new Thread(() -> index.reserve(day, 20, 1));
+		reserver.start();
+		assertTrue(store.reserved.await(10, TimeUnit.SECONDS));
+		store.resumeRead.countDown();
+		reader.join();
+		reserver.join();
+
+		assertEquals(Collections.emptyList(), index.nextAvailableDays(today, 1, 5));
+	}
+
+	@Test
+	public void concurrentReadsAndReservationsLeaveTheSummariesCurrent() throws Exception {
+		int horizon = 8;
+		LocalDate today = LocalDate.now(ZONE);
+		StubProvider store = new StubProvider();
+		for (int day = 0; day < horizon; day++) {
+			store.days.put(today.plusDays(day), (1L << 48) - 1);
+		}
+		AvailabilityIndex index = new AvailabilityIndex(store, ZONE, horizon, date -> ALL_STARTS);
+		index.nextAvailableDays(today, 1, horizon);
+
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			Random random = new Random(t);
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 20000; i++) {
+					LocalDate date = today.plusDays(random.nextInt(horizon));
+					if (random.nextInt(4) == 0) {
+						index.reserve(date, random.nextInt(48), 1 + random.nextInt(3));
+					} else {
+						index.getAvailability(date);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		for (int need = 1; need <= 8; need++) {
+			assertEquals(
+					"need " + need,
+					scan(store, today, horizon, 0, need, horizon),
+					index.nextAvailableDays(today, need, horizon));
+		}
+	}
+
+	private static List<LocalDate> scan(
+			final StubProvider store,
+			final LocalDate today,
+			final int horizon,
+			final int from,
+			final int need,
+			final int limit) {
+		List<LocalDate> days = new ArrayList<>();
+		for (int day = from; day < horizon && days.size() < limit; day++) {
+			LocalDate date = today.plusDays(day);
+			if (AvailabilityIndex.longestRun(store.getAvailability(date).freeSlots(), ALL_STARTS) >= need) {
+				days.add(date);
+			}
+		}
+		return days;
+	}
+
+	/** Free slots per day in a map; a day not in it is full. One read can be armed to stall mid-way. */
+	private static final class StubProvider implements AvailabilityProvider {
+		private final Map<LocalDate, Long> days = Collections.synchronizedMap(new HashMap<>());
+		private final AtomicBoolean stallNextRead = new AtomicBoolean();
+		private final CountDownLatch readStalled = new CountDownLatch(1);
+		private final CountDownLatch resumeRead = new CountDownLatch(1);
+		private final CountDownLatch reserved = new CountDownLatch(1);
+
+		@Override
+		public DayAvailability getAvailability(final LocalDate date) {
+			DayAvailability availability = DayAvailability.of(days.getOrDefault(date, 0L));
+			if (stallNextRead.compareAndSet(true, false)) {
+				readStalled.countDown();
+				try {
+					resumeRead.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return availability;
+		}
+
+		@Override
+		public boolean reserve(final LocalDate date, final int startSlot, final int slotCount) {
+			synchronized (days) {
+				DayAvailability availability = DayAvailability.of(days.getOrDefault(date, 0L));
+				if (!availability.hasFreeRun(startSlot, slotCount)) {
+					return false;
+				}
+				days.put(date, availability.withoutRun(startSlot, slotCount).freeSlots());
+			}
+			reserved.countDown();
+			return true;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.github.cairoatlas.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BoundedLoadingCacheTest {
+
+	@Test
+	public void loadsOnceAndServesHits() {
+		AtomicInteger loads = new AtomicInteger();
+		BoundedLoadingCache<String, Integer> cache = new BoundedLoadingCache<>(4);
+
+		assertEquals(Integer.valueOf(1), cache.get("a", key -> loads.incrementAndGet()));
+		assertEquals(Integer.valueOf(1), cache.get("a", key -> loads.incrementAndGet()));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void concurrentMissesWaitOnOneLoad() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		BoundedLoadingCache<String, Integer> cache = new BoundedLoadingCache<>(4);
+
+		Thread first = new Thread(() -> cache.get("a", key -> {
+			loading.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return loads.incrementAndGet();
+		}));
+		first.start();
+		assertTrue(loading.await(10, TimeUnit.SECONDS));
+		Integer[] second = new Integer[1];
+		Thread waiter = new Thread(() -> second[0] = cache.get("a", key -> loads.incrementAndGet()));
+		waiter.start();
+		assertNull(cache.getIfLoaded("a"));
+		release.countDown();
+		first.join();
+		waiter.join();
+
+		assertEquals(1, loads.get());
+		assertEquals(Integer.valueOf(1), second[0]);
+	}
+
+	@Test
+	public void evictsTheLeastRecentlyUsedEntryButNotTheNewOne() {
+		AtomicLong ticker = new AtomicLong();
+		BoundedLoadingCache<String, String> cache = new BoundedLoadingCache<>(2, Long.MAX_VALUE, ticker::get);
+		cache.get("a", key -> key);
+		ticker.incrementAndGet();
+		cache.get("b", key -> key);
+		ticker.incrementAndGet();
+		cache.get("a", key -> key);
+		ticker.incrementAndGet();
+		cache.get("c", key -> key);
+
+		assertEquals(2, cache.size());
+		assertEquals("a", cache.getIfLoaded("a"));
+		assertNull(cache.getIfLoaded("b"));
+		assertEquals("c", cache.getIfLoaded("c"));
+	}
+
+	@Test
+	public void doesNotCacheAFailedLoad() {
+		BoundedLoadingCache<String, String> cache = new BoundedLoadingCache<>(2);
+		try {
+			cache.get("a", key -> {
+				throw new IllegalStateException("boom");
+			});
+			fail();
+		} catch (IllegalStateException expected) {
+			// the next get loads again
+		}
+
+		assertEquals(0, cache.size());
+		assertEquals("a", cache.get("a", key -> key));
+	}
+
+	@Test
+	public void reloadsAnExpiredEntryAndInvalidates() {
+		AtomicInteger loads = new AtomicInteger();
+		AtomicLong ticker = new AtomicLong();
+		BoundedLoadingCache<String, Integer> cache = new BoundedLoadingCache<>(2, 10, ticker::get);
+		cache.get("a", key -> loads.incrementAndGet());
+		ticker.addAndGet(9);
+		assertEquals(Integer.valueOf(1), cache.get("a", key -> loads.incrementAndGet()));
+		ticker.addAndGet(1);
+
+		assertEquals(Integer.valueOf(1), cache.getIfLoaded("a"));
+		assertEquals(Integer.valueOf(2), cache.get("a", key -> loads.incrementAndGet()));
+		cache.invalidate("a");
+		assertNull(cache.getIfLoaded("a"));
+	}
+}
@@ -0,0 +1,136 @@
+package com.github.cairoatlas.date;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Pins {@link DateRecognizer} against the {@code SimpleDateFormat} loop it replaced. Inputs in
+ * {@link #SAME_AS_LEGACY} must match that loop exactly; {@link #DIVERGENCES} lists the inputs it now reads
+ * differently on purpose, with what the loop returned.
+ */
+public class DateRecognizerTest {
+
+	private static final ZoneId EASTERN_TIME_ZONE = ZoneId.of("America/New_York");
+
+	private static final String[] LEGACY_DATE_FORMATS = {
+			"MMMM dd, yyyy", "MMMM dd, yy", "MMMM d, yyyy", "MMMM d, yy",
+			"MMM dd, yyyy", "MMM dd, yy", "MMM d, yyyy", "MMM d, yy",
+			"MM dd, yyyy", "MM dd, yy", "MM d, yyyy", "MM d, yy",
+			"M dd, yyyy", "M dd, yy", "M d, yyyy", "M d, yy",
+			"yyyy-MM-dd", "yyyy-M-dd", "yyyy-M-d",
+			"MM/dd/yyyy", "MM/dd/yy", "MM/d/yyyy", "MM/d/yy",
+			"M/dd/yyyy", "M/dd/yy", "M/d/yyyy", "M/d/yy",
+			"MM-dd-yyyy", "MM-dd-yy", "MM-d-yyyy", "MM-d-yy",
+			"M-dd-yyyy", "M-dd-yy", "M-d-yyyy", "M-d-yy"
+	};
+
+	/** Input and the date both parsers return, or null when both reject it. */
+	private static final String[][] SAME_AS_LEGACY = {
+			{"June 5, 2026", "2026-06-05"},
+			{"Jun 5, 2026", "2026-06-05"},
+			{"june 05, 2026", "2026-06-05"},
+			{"December 31, 2026", "2026-12-31"},
+			{"Feb 30, 2026", "2026-03-02"},
+			{"6 5, 2026", "2026-06-05"},
+			{"06 05, 2026", "2026-06-05"},
+			{"13 5, 2026", "2027-01-05"},
+			{"2026-06-05", "2026-06-05"},
+			{"2026-6-5", "2026-06-05"},
+			{"2026-02-30", "2026-03-02"},
+			{"2026-13-01", "2027-01-01"},
+			{"6/5/2026", "2026-06-05"},
+			{"06/05/2026", "2026-06-05"},
+			{"2/29/2028", "2028-02-29"},
+			{"2/30/2026", "2026-03-02"},
+			{"0/5/2026", "2025-12-05"},
+			{"6/0/2026", "2026-05-31"},
+			{"6/5/20260", "+20260-06-05"},
+			{"6/5/2026 at noon", "2026-06-05"},
+			{"2026-06-05T10:00", "2026-06-05"},
+			{" 6/5/2026", "2026-06-05"},
+			{"6/ 5/2026", "2026-06-05"},
+			{"Sept 5, 2026", null},
+			{"6 /5/2026", null},
+			{"+6/5/2026", null},
+			{"6/5", null},
+			{"tomorrow", null},
+			{"", null},
+			{"2026", null},
+			{"June", null},
+			{"June 5", null},
+			{"June 5 2026", null},
+			{"5 June 2026", null},
+			{"jun5, 2026", null},
+			{"6.5.2026", null},
+	};
+
+	/** Input, the date the legacy loop returned (null when it rejected it), and the date expected now. */
+	private static final String[][] DIVERGENCES = {
+			// two-digit years: the yyyy patterns matched first and read them as years 00xx
+			{"6/5/26", "0026-06-03", "2026-06-05"},
+			{"12/31/26", "0026-12-29", "2026-12-31"},
+			{"JUNE 5, 26", "0026-06-03", "2026-06-05"},
+			{"Sep 05, 26", "0026-09-03", "2026-09-05"},
+			{"2026/06/05", "0173-10-05", "2173-10-06"},
+			// dash forms: yyyy-MM-dd matched first and read the month as the year
+			{"6-5-2026", "0011-11-14", "2026-06-05"},
+			{"06-05-2026", "0011-11-14", "2026-06-05"},
+			{"6-5-26", "0006-05-24", "2026-06-05"},
+			// years before the Gregorian cutover went through the Julian calendar
+			{"6/5/0", "0000-06-03", "0000-06-05"},
+			{"6/5/1", "0001-06-03", "0001-06-05"},
+			// signed and overflowing fields
+			{"-1/5/2026", "2025-11-05", null},
+			{"6/-1/2026", "2026-05-30", null},
+			{"99999999999/1/2026", "+101314708-07-01", null},
+	};
+
+	private final DateRecognizer recognizer = DateRecognizer.forZone(EASTERN_TIME_ZONE);
+
+	@Test
+	public void matchesTheLegacyLoop() {
+		for (String[] entry : SAME_AS_LEGACY) {
+			Optional<LocalDate> expected = Optional.ofNullable(entry[1]).map(LocalDate::parse);
+			assertEquals(entry[0], expected, legacy(entry[0]));
+			assertEquals(entry[0], expected, recognizer.recognize(entry[0]));
+		}
+	}
+
+	@Test
+	public void divergesFromTheLegacyLoopOnlyWhereIntended() {
+		for (String[] entry : DIVERGENCES) {
+			assertEquals(entry[0], Optional.ofNullable(entry[1]).map(LocalDate::parse), legacy(entry[0]));
+			assertEquals(entry[0], Optional.ofNullable(entry[2]).map(LocalDate::parse), recognizer.recognize(entry[0]));
+		}
+	}
+
+	@Test
+	public void rejectsNull() {
+		assertEquals(Optional.empty(), recognizer.recognize(null));
+	}
+
+	/**
+	 * The pre-DateRecognizer {@code isValidDate} plus {@code parseDate} pair, parsing in Eastern time so the
+	 * JVM zone does not matter.
+	 */
+	private static Optional<LocalDate> legacy(final String input) {
+		for (String dateFormat : LEGACY_DATE_FORMATS) {
+			try {
+				SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
+				simpleDateFormat.setTimeZone(TimeZone.getTimeZone(EASTERN_TIME_ZONE));
+				return Optional.of(simpleDateFormat.parse(input).toInstant().atZone(EASTERN_TIME_ZONE).toLocalDate());
+			} catch (ParseException e) {
+				// try the next format
+			}
+		}
+		return Optional.empty();
+	}
+}
@@ -0,0 +1,120 @@
+package com.github.cairoatlas.intent;
+
+import com.github.cairoatlas.availability.AvailabilityProvider;
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.availability.HalfHourSlots;
+import com.github.cairoatlas.calendar.BusinessCalendar;
+import com.github.cairoatlas.catalog.AppointmentCatalog;
+import com.github.cairoatlas.date.DateRecognizer;
+import com.github.cairoatlas.metrics.InvocationMetrics;
+import com.github.cairoatlas.objects.request.CurrentIntent;
+import com.github.cairoatlas.objects.request.LexRequest;
+import com.github.cairoatlas.objects.response.DialogAction;
+import com.github.cairoatlas.objects.response.LexResponse;
+import com.github.cairoatlas.session.BookingMapBudget;
+import com.github.cairoatlas.session.CompactBookingMapCodec;
+import com.github.cairoatlas.session.JsonBookingMapCodec;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class MakeAppointmentIntentHandlerTest {
+
+	@Test
+	public void confirmsAndBooksTheOnlyOpeningBeforeTen() {
+		Properties properties = new Properties();
+		properties.setProperty("hours.wednesday", "9:00-17:00");
+		properties.setProperty("schedule.wednesday", "9:00");
+		BusinessCalendar calendar = BusinessCalendar.compile(properties);
+		DateRecognizer recognizer = DateRecognizer.forZone(calendar.getZoneId());
+		StubProvider store = new StubProvider(calendar);
+		MakeAppointmentIntentHandler handler = new MakeAppointmentIntentHandler(
+				calendar,
+				AppointmentCatalog.load(),
+				MakeAppointmentPrompts.load(),
+				store,
+				90,
+				new BookingMapBudget(new CompactBookingMapCodec(new JsonBookingMapCodec(recognizer)), 1024));
+		LocalDate wednesday =
+				LocalDate.now(calendar.getZoneId()).with(TemporalAdjusters.next(DayOfWeek.WEDNESDAY));
+
+		Map<String, String> slots = new HashMap<>();
+		slots.put("AppointmentType", "cleaning");
+		slots.put("Date", wednesday.toString());
+		slots.put("Time", null);
+		LexResponse offer = handler.handle(
+				new IntentRequest(request("DialogCodeHook", "None", slots, new HashMap<>()), recognizer),
+				InvocationMetrics.begin());
+
+		assertEquals(DialogAction.CONFIRM_INTENT, offer.getDialogAction().getType());
+		assertEquals("09:00", offer.getDialogAction().getSlots().get("Time"));
+
+		// Lex sends the confirmed slots back unchanged for fulfillment.
+		LexResponse booked = handler.handle(
+				new IntentRequest(
+						request(
+								"FulfillmentCodeHook",
+								"Confirmed",
+								offer.getDialogAction().getSlots(),
+								offer.getSessionAttributes()),
+						recognizer),
+				InvocationMetrics.begin());
+
+		assertEquals(DialogAction.CLOSE, booked.getDialogAction().getType());
+		assertEquals(DialogAction.FULFILLED, booked.getDialogAction().getFulfillmentState());
+		assertFalse(store.getAvailability(wednesday).isFree(HalfHourSlots.indexOf("9:00")));
+	}
+
+	private static LexRequest request(
+			final String invocationSource,
+			final String confirmationStatus,
+			final Map<String, String> slots,
+			final Map<String, String> sessionAttributes) {
+		CurrentIntent intent = new CurrentIntent();
+		intent.setName(MakeAppointmentIntentHandler.INTENT_NAME);
+		intent.setConfirmationStatus(confirmationStatus);
+		intent.setSlots(new HashMap<>(slots));
+
+		LexRequest request = new LexRequest();
+		request.setMessageVersion("1.0");
+		request.setInvocationSource(invocationSource);
+		request.setUserId("test");
+		request.setSessionAttributes(new HashMap<>(sessionAttributes));
+		request.setCurrentIntent(intent);
+		return request;
+	}
+
+	/** Each day starts as the calendar seeds it; reservations are kept in memory. */
+	private static final class StubProvider implements AvailabilityProvider {
+		private final BusinessCalendar calendar;
+		private final Map<LocalDate, DayAvailability> days = new ConcurrentHashMap<>();
+
+		private StubProvider(final BusinessCalendar calendar) {
+			this.calendar = calendar;
+		}
+
+		@Override
+		public DayAvailability getAvailability(final LocalDate date) {
+			return days.computeIfAbsent(date, calendar::initialAvailability);
+		}
+
+		@Override
+		public synchronized boolean reserve(final LocalDate date, final int startSlot, final int slotCount) {
+			DayAvailability availability = getAvailability(date);
+			if (!availability.hasFreeRun(startSlot, slotCount)) {
+				return false;
+			}
+			days.put(date, availability.withoutRun(startSlot, slotCount));
+			return true;
+		}
+	}
+}
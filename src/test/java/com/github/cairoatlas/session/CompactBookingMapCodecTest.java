@@ -0,0 +1,87 @@
+package com.github.cairoatlas.session;
+
+import com.github.cairoatlas.availability.DayAvailability;
+import com.github.cairoatlas.availability.HalfHourSlots;
+import com.github.cairoatlas.date.DateRecognizer;
+import com.google.gson.Gson;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompactBookingMapCodecTest {
+
+	private static final long ALL_SLOTS = (1L << HalfHourSlots.SLOTS_PER_DAY) - 1;
+
+	private final CompactBookingMapCodec codec = new CompactBookingMapCodec(
+			new JsonBookingMapCodec(DateRecognizer.forZone(ZoneId.of("America/New_York"))));
+
+	@Test
+	public void roundTripsAnEmptyMap() {
+		Map<LocalDate, DayAvailability> empty = new LinkedHashMap<>();
+		assertEquals(empty, codec.decode(codec.encode(empty)));
+		assertEquals(empty, codec.decode(CompactBookingMapCodec.VERSION_MARKER));
+	}
+
+	@Test
+	public void roundTripsAllSlotsAndNoSlots() {
+		Map<LocalDate, DayAvailability> bookingMap = new LinkedHashMap<>();
+		bookingMap.put(LocalDate.of(2026, 10, 21), DayAvailability.of(ALL_SLOTS));
+		bookingMap.put(LocalDate.of(2026, 10, 22), DayAvailability.NONE);
+		assertEquals(bookingMap, codec.decode(codec.encode(bookingMap)));
+	}
+
+	@Test
+	public void preservesInsertionOrderAcrossNegativeDeltas() {
+		Map<LocalDate, DayAvailability> bookingMap = new LinkedHashMap<>();
+		bookingMap.put(LocalDate.of(2026, 11, 4), DayAvailability.of(0b1011L << 20));
+		bookingMap.put(LocalDate.of(2026, 10, 21), DayAvailability.of(ALL_SLOTS));
+		bookingMap.put(LocalDate.of(1969, 12, 31), DayAvailability.of(1L));
+		bookingMap.put(LocalDate.of(2026, 10, 28), DayAvailability.NONE);
+
+		Map<LocalDate, DayAvailability> decoded = codec.decode(codec.encode(bookingMap));
+
+		assertEquals(bookingMap, decoded);
+		assertEquals(new ArrayList<>(bookingMap.keySet()), new ArrayList<>(decoded.keySet()));
+	}
+
+	@Test
+	public void readsTheBaselineJsonForm() {
+		Map<String, List<String>> baseline = new LinkedHashMap<>();
+		baseline.put("2026-10-21", Arrays.asList("10:00", "16:00", "16:30"));
+		baseline.put("October 23, 2026", Arrays.asList("10:30", "11:00"));
+		baseline.put("2026-10-26", new ArrayList<>());
+		baseline.put("not a date", Arrays.asList("10:00"));
+
+		Map<LocalDate, DayAvailability> decoded = codec.decode(new Gson().toJson(baseline));
+
+		Map<LocalDate, DayAvailability> expected = new LinkedHashMap<>();
+		expected.put(LocalDate.of(2026, 10, 21), slots("10:00", "16:00", "16:30"));
+		expected.put(LocalDate.of(2026, 10, 23), slots("10:30", "11:00"));
+		expected.put(LocalDate.of(2026, 10, 26), DayAvailability.NONE);
+		assertEquals(expected, decoded);
+	}
+
+	@Test
+	public void readsAMissingAttributeAsEmpty() {
+		assertTrue(codec.decode(null).isEmpty());
+		assertTrue(codec.decode("").isEmpty());
+		assertTrue(codec.decode("null").isEmpty());
+	}
+
+	private static DayAvailability slots(final String... times) {
+		long freeSlots = 0L;
+		for (String time : times) {
+			freeSlots |= 1L << HalfHourSlots.indexOf(time);
+		}
+		return DayAvailability.of(freeSlots);
+	}
+}